@@ -2,6 +2,7 @@ plugins {
     java
     id("org.springframework.boot") version "3.2.0"
     id("io.spring.dependency-management") version "1.1.5"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "com.k8sloverskorea"
@@ -21,11 +22,21 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-actuator")
     implementation("org.springframework.boot:spring-boot-starter-data-jpa")
 
+    // Compact binary response formats (CBOR, Smile) for service-to-service consumers
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-cbor")
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-smile")
+
     // Swagger/OpenAPI UI
     implementation("org.springdoc:springdoc-openapi-starter-webmvc-ui:2.5.0")
 
     runtimeOnly("com.h2database:h2")
 
+    // Latency histograms for the built-in load generator (same version Micrometer uses)
+    implementation("org.hdrhistogram:HdrHistogram:2.1.12")
+
+    // Bounded in-process entity cache (version managed by Spring Boot)
+    implementation("com.github.ben-manes.caffeine:caffeine")
+
     implementation("io.micrometer:micrometer-registry-prometheus")
 
     // Tracing with OpenTelemetry via Micrometer bridge
@@ -34,6 +45,23 @@ dependencies {
 
 }
 
+// Fast-startup build: ./gradlew bootJar -PfastStartup adds Spring AOT processing.
+// Run the result with -Dspring.aot.enabled=true (the Dockerfile's FAST_STARTUP mode does this and adds AppCDS)
+if (project.hasProperty("fastStartup")) {
+    apply(plugin = "org.springframework.boot.aot")
+}
+
 tasks.withType<Test>().configureEach {
     useJUnitPlatform()
 }
+
+// JMH benchmarks live in src/jmh/java and run with ./gradlew jmh
+// Narrow the run with -PjmhIncludes=<regex>, e.g. -PjmhIncludes=NameSearch
+jmh {
+    warmupIterations.set(2)
+    iterations.set(3)
+    fork.set(1)
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("reports/jmh/results.json"))
+    (project.findProperty("jmhIncludes") as String?)?.let { includes.set(listOf(it)) }
+}
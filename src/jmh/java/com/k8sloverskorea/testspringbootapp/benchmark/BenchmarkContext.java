@@ -0,0 +1,35 @@
+package com.k8sloverskorea.testspringbootapp.benchmark;
+
+import com.k8sloverskorea.testspringbootapp.TestSpringBootApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.UUID;
+
+/**
+ * Boots the application without a web server against a private in-memory H2 database,
+ * with scheduled logging off and nothing that needs the network, so benchmarks run offline.
+ */
+final class BenchmarkContext {
+    
+    private BenchmarkContext() {
+    }
+    
+    static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(TestSpringBootApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID(),
+                        "spring.jpa.show-sql=false",
+                        "app.logging.scheduled.enabled=false",
+                        "management.otlp.metrics.export.enabled=false",
+                        "app.tracing.export.enabled=false",
+                        "logging.file.name=",
+                        "logging.level.root=WARN",
+                        "logging.level.com.k8sloverskorea.testspringbootapp=WARN",
+                        "logging.level.org.hibernate.SQL=WARN",
+                        "logging.level.io.opentelemetry=OFF")
+                .run();
+    }
+}
@@ -0,0 +1,50 @@
+package com.k8sloverskorea.testspringbootapp.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.k8sloverskorea.testspringbootapp.model.TestEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of {@code List<TestEntity>} as the list endpoints return it,
+ * using an ObjectMapper configured the way Spring Boot configures it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EntitySerializationBenchmark {
+    
+    @Param({"10", "1000", "10000"})
+    public int listSize;
+    
+    private ObjectMapper objectMapper;
+    private List<TestEntity> entities;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        entities = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            TestEntity entity = new TestEntity("entity-" + i, "description for entity " + i);
+            entity.setId((long) i);
+            entities.add(entity);
+        }
+    }
+    
+    @Benchmark
+    public byte[] serializeList() throws Exception {
+        return objectMapper.writeValueAsBytes(entities);
+    }
+}
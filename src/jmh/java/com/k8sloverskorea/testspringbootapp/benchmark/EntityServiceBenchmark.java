@@ -0,0 +1,72 @@
+package com.k8sloverskorea.testspringbootapp.benchmark;
+
+import com.k8sloverskorea.testspringbootapp.model.TestEntity;
+import com.k8sloverskorea.testspringbootapp.service.TestEntityService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CRUD round trips through {@link TestEntityService} (spans, cache, index and JPA) against H2.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EntityServiceBenchmark {
+    
+    private static final int SEED_ROWS = 1_000;
+    
+    private ConfigurableApplicationContext context;
+    private TestEntityService service;
+    private Long[] ids;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        service = context.getBean(TestEntityService.class);
+        List<TestEntity> seed = new ArrayList<>(SEED_ROWS);
+        for (int i = 0; i < SEED_ROWS; i++) {
+            seed.add(new TestEntity("entity-" + i, "seeded row " + i));
+        }
+        ids = service.createEntities(seed).stream().map(TestEntity::getId).toArray(Long[]::new);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    private Long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+    
+    @Benchmark
+    public Optional<TestEntity> getEntityById() {
+        return service.getEntityById(randomId());
+    }
+    
+    @Benchmark
+    public TestEntity updateEntity() {
+        return service.updateEntity(randomId(), new TestEntity("updated-" + System.nanoTime(), "updated"));
+    }
+    
+    @Benchmark
+    public TestEntity createAndDeleteEntity() {
+        TestEntity created = service.createEntity(new TestEntity("transient", "created then deleted"));
+        service.deleteEntity(created.getId());
+        return created;
+    }
+}
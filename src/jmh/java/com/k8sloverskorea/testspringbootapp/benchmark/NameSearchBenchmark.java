@@ -0,0 +1,74 @@
+package com.k8sloverskorea.testspringbootapp.benchmark;
+
+import com.k8sloverskorea.testspringbootapp.model.EntitySearchResult;
+import com.k8sloverskorea.testspringbootapp.model.TestEntity;
+import com.k8sloverskorea.testspringbootapp.repository.TestEntityRepository;
+import com.k8sloverskorea.testspringbootapp.service.TestEntityService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Substring name search at several table sizes: the repository LIKE query (full scan)
+ * versus the service path backed by the trigram index. About 1% of rows match.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NameSearchBenchmark {
+    
+    private static final String NEEDLE = "needle";
+    
+    @Param({"1000", "10000", "100000"})
+    public int tableSize;
+    
+    private ConfigurableApplicationContext context;
+    private TestEntityRepository repository;
+    private TestEntityService service;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        repository = context.getBean(TestEntityRepository.class);
+        service = context.getBean(TestEntityService.class);
+        List<TestEntity> batch = new ArrayList<>(10_000);
+        for (int i = 0; i < tableSize; i++) {
+            String name = (i % 100 == 0 ? "Row-" + NEEDLE.toUpperCase() + "-" : "row-plain-") + i;
+            batch.add(new TestEntity(name, null));
+            if (batch.size() == 10_000) {
+                service.createEntities(batch);
+                batch = new ArrayList<>(10_000);
+            }
+        }
+        if (!batch.isEmpty()) {
+            service.createEntities(batch);
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public List<TestEntity> repositoryContainingIgnoreCase() {
+        return repository.findByNameContainingIgnoreCase(NEEDLE);
+    }
+    
+    @Benchmark
+    public EntitySearchResult serviceSearchFirstPage() {
+        return service.searchEntitiesByName(NEEDLE, 0, 100);
+    }
+}
@@ -0,0 +1,83 @@
+package com.k8sloverskorea.testspringbootapp.benchmark;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the manual {@code spanBuilder(...).startSpan() / end()} pattern used in the controllers
+ * and service: an SDK tracer feeding a BatchSpanProcessor (with an exporter that discards spans,
+ * so no collector is needed) versus the no-op tracer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SpanOverheadBenchmark {
+    
+    @Param({"sdk", "noop"})
+    public String tracerType;
+    
+    private SdkTracerProvider tracerProvider;
+    private Tracer tracer;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("sdk".equals(tracerType)) {
+            tracerProvider = SdkTracerProvider.builder()
+                    .addSpanProcessor(BatchSpanProcessor.builder(new DiscardingExporter()).build())
+                    .build();
+            tracer = tracerProvider.get("benchmark");
+        } else {
+            tracer = OpenTelemetry.noop().getTracer("benchmark");
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (tracerProvider != null) {
+            tracerProvider.close();
+        }
+    }
+    
+    @Benchmark
+    public Span startAndEndSpan() {
+        Span span = tracer.spanBuilder("get-entity-by-id-endpoint").startSpan();
+        span.end();
+        return span;
+    }
+    
+    private static final class DiscardingExporter implements SpanExporter {
+        @Override
+        public CompletableResultCode export(Collection<SpanData> spans) {
+            return CompletableResultCode.ofSuccess();
+        }
+        
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+        
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+}
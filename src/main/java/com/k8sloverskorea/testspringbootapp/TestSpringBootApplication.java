@@ -4,6 +4,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.boot.context.event.ApplicationStartedEvent;
 import org.springframework.context.event.EventListener;
@@ -15,9 +16,14 @@ public class TestSpringBootApplication {
 
     private static final Logger logger = LoggerFactory.getLogger(TestSpringBootApplication.class);
 
+    // Startup steps kept for the restart-monitor timeline and /actuator/startup
+    private static final int STARTUP_STEP_CAPACITY = 8192;
+
     public static void main(String[] args) {
         logger.info("Starting Test Spring Boot Application...");
-        SpringApplication.run(TestSpringBootApplication.class, args);
+        SpringApplication application = new SpringApplication(TestSpringBootApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEP_CAPACITY));
+        application.run(args);
     }
 
     @EventListener(ApplicationStartedEvent.class)
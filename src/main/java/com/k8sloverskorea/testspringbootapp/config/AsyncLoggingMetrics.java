@@ -0,0 +1,61 @@
+package com.k8sloverskorea.testspringbootapp.config;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+
+/**
+ * Publishes queue depth and dropped-event counts of the {@link MeteredAsyncAppender}s attached
+ * to the root logger.
+ */
+@Component
+public class AsyncLoggingMetrics {
+    
+    private static final org.slf4j.Logger logger = LoggerFactory.getLogger(AsyncLoggingMetrics.class);
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @PostConstruct
+    void bind() {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return;
+        }
+        Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        for (Iterator<Appender<ILoggingEvent>> it = root.iteratorForAppenders(); it.hasNext(); ) {
+            if (it.next() instanceof MeteredAsyncAppender appender) {
+                String name = appender.getName();
+                Gauge.builder("logging.async.queue.depth", appender, MeteredAsyncAppender::getNumberOfElementsInQueue)
+                        .tag("appender", name)
+                        .description("Log events waiting in the async appender queue")
+                        .register(meterRegistry);
+                Gauge.builder("logging.async.queue.capacity", appender, MeteredAsyncAppender::getQueueSize)
+                        .tag("appender", name)
+                        .description("Capacity of the async appender queue")
+                        .register(meterRegistry);
+                FunctionCounter.builder("logging.async.dropped", appender, MeteredAsyncAppender::getDiscardedCount)
+                        .tag("appender", name)
+                        .tag("reason", "discarding_threshold")
+                        .description("Log events dropped by the async appender")
+                        .register(meterRegistry);
+                FunctionCounter.builder("logging.async.dropped", appender, MeteredAsyncAppender::getDroppedQueueFullCount)
+                        .tag("appender", name)
+                        .tag("reason", "queue_full")
+                        .description("Log events dropped by the async appender")
+                        .register(meterRegistry);
+                logger.info("Async log appender {} (async={}, policy={}, queueSize={})",
+                        name, appender.isAsync(), appender.getPolicy(), appender.getQueueSize());
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.k8sloverskorea.testspringbootapp.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a handler method that {@link ConcurrencyLimitInterceptor} always admits: cheap health and
+ * diagnostic endpoints that must keep answering while the server is shedding load, and scenarios
+ * whose purpose is to exhaust the request thread pool.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ConcurrencyLimitExempt {
+}
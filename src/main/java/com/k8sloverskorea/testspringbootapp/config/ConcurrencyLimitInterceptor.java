@@ -0,0 +1,112 @@
+package com.k8sloverskorea.testspringbootapp.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.k8sloverskorea.testspringbootapp.controller.TestEntityController;
+import com.k8sloverskorea.testspringbootapp.controller.TestScenariosController;
+import com.k8sloverskorea.testspringbootapp.service.AdaptiveConcurrencyLimiter;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Puts {@link TestEntityController} and {@link TestScenariosController} behind the
+ * {@link AdaptiveConcurrencyLimiter}. Shed requests get an immediate 503 with {@code Retry-After}
+ * instead of holding a worker thread. Streaming endpoints give their permit back once they go async,
+ * since they no longer occupy a worker thread from then on. Handler methods annotated with
+ * {@link ConcurrencyLimitExempt} (health, limiter status, thread-exhaustion scenarios) are never limited.
+ */
+@Configuration
+public class ConcurrencyLimitInterceptor implements AsyncHandlerInterceptor, WebMvcConfigurer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitInterceptor.class);
+
+    private static final String PERMIT_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".permit";
+
+    @Autowired
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this).addPathPatterns("/api/**");
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        // Async re-dispatches of an already admitted request are not counted again
+        if (request.getDispatcherType() != DispatcherType.REQUEST || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        if (handlerMethod.hasMethodAnnotation(ConcurrencyLimitExempt.class)) {
+            return true;
+        }
+        String group = groupOf(handlerMethod.getBeanType());
+        if (group == null) {
+            return true;
+        }
+        Optional<AdaptiveConcurrencyLimiter.Permit> permit = limiter.tryAcquire(group);
+        if (permit.isPresent()) {
+            request.setAttribute(PERMIT_ATTRIBUTE, permit.get());
+            return true;
+        }
+        logger.debug("Shed {} {} ({} group, limit {})", request.getMethod(), request.getRequestURI(), group, limiter.currentLimit());
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", "Server is overloaded, retry later");
+        body.put("group", group);
+        body.put("limit", limiter.currentLimit());
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(limiter.retryAfter().toSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+        return false;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        AdaptiveConcurrencyLimiter.Permit permit = takePermit(request);
+        if (permit != null) {
+            permit.releaseWithoutSample();
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        AdaptiveConcurrencyLimiter.Permit permit = takePermit(request);
+        if (permit != null) {
+            permit.release();
+        }
+    }
+
+    private static AdaptiveConcurrencyLimiter.Permit takePermit(HttpServletRequest request) {
+        Object permit = request.getAttribute(PERMIT_ATTRIBUTE);
+        request.removeAttribute(PERMIT_ATTRIBUTE);
+        return (AdaptiveConcurrencyLimiter.Permit) permit;
+    }
+
+    private static String groupOf(Class<?> controller) {
+        if (TestEntityController.class.isAssignableFrom(controller)) {
+            return AdaptiveConcurrencyLimiter.ENTITIES;
+        }
+        if (TestScenariosController.class.isAssignableFrom(controller)) {
+            return AdaptiveConcurrencyLimiter.SCENARIOS;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,172 @@
+package com.k8sloverskorea.testspringbootapp.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * DataSource wrapper that times connection acquisition and every statement execution, and counts
+ * rows read from result sets, reporting to {@link QueryMetrics}. Connections, statements and result
+ * sets are JDK dynamic proxies, so drivers and Hibernate see the plain JDBC interfaces;
+ * {@code unwrap} still reaches the pool (Hikari metrics and health keep working).
+ */
+public class InstrumentedDataSource extends DelegatingDataSource {
+
+    private static final Set<String> PREPARE_METHODS = Set.of("prepareStatement", "prepareCall");
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    // Resolved lazily: the pool is wrapped while the context is still creating beans
+    private final ObjectProvider<QueryMetrics> metricsProvider;
+    private volatile QueryMetrics metrics;
+
+    public InstrumentedDataSource(DataSource target, ObjectProvider<QueryMetrics> metricsProvider) {
+        super(target);
+        this.metricsProvider = metricsProvider;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = obtainTargetDataSource().getConnection();
+        metrics().recordConnectionWait(System.nanoTime() - start);
+        return wrapConnection(connection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = obtainTargetDataSource().getConnection(username, password);
+        metrics().recordConnectionWait(System.nanoTime() - start);
+        return wrapConnection(connection);
+    }
+
+    private QueryMetrics metrics() {
+        QueryMetrics current = metrics;
+        if (current == null) {
+            current = metricsProvider.getObject();
+            metrics = current;
+        }
+        return current;
+    }
+
+    private Connection wrapConnection(Connection connection) {
+        return proxy(Connection.class, connection, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof Statement statement) {
+                String sql = PREPARE_METHODS.contains(method.getName()) ? (String) args[0] : null;
+                Class<? extends Statement> type = result instanceof CallableStatement ? CallableStatement.class
+                        : result instanceof PreparedStatement ? PreparedStatement.class
+                        : Statement.class;
+                return wrapStatement(type, statement, sql);
+            }
+            return result;
+        });
+    }
+
+    private <T extends Statement> T wrapStatement(Class<T> type, Statement statement, String preparedSql) {
+        return proxy(type, statement, new InvocationHandler() {
+            private int batched;
+            private String lastBatchSql;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                String name = method.getName();
+                if (name.equals("addBatch")) {
+                    batched++;
+                    if (args != null && args.length == 1) {
+                        lastBatchSql = (String) args[0];
+                    }
+                    return InstrumentedDataSource.invoke(statement, method, args);
+                }
+                if (name.equals("clearBatch")) {
+                    batched = 0;
+                }
+                if (!EXECUTE_METHODS.contains(name)) {
+                    Object result = InstrumentedDataSource.invoke(statement, method, args);
+                    // Result set of an execute() call
+                    return result instanceof ResultSet resultSet && name.equals("getResultSet")
+                            ? wrapResultSet(resultSet, preparedSql)
+                            : result;
+                }
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text
+                        : preparedSql != null ? preparedSql
+                        : lastBatchSql;
+                int batchSize = name.endsWith("Batch") ? batched : 1;
+                long start = System.nanoTime();
+                try {
+                    Object result = InstrumentedDataSource.invoke(statement, method, args);
+                    return result instanceof ResultSet resultSet ? wrapResultSet(resultSet, sql) : result;
+                } finally {
+                    metrics().recordExecution(sql, System.nanoTime() - start, batchSize);
+                    if (name.endsWith("Batch")) {
+                        batched = 0;
+                    }
+                }
+            }
+        });
+    }
+
+    private ResultSet wrapResultSet(ResultSet resultSet, String sql) {
+        return proxy(ResultSet.class, resultSet, new InvocationHandler() {
+            private long rows;
+            private boolean recorded;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                Object result = InstrumentedDataSource.invoke(resultSet, method, args);
+                String name = method.getName();
+                if (name.equals("next")) {
+                    if (Boolean.TRUE.equals(result)) {
+                        rows++;
+                    } else {
+                        record();
+                    }
+                } else if (name.equals("close")) {
+                    record();
+                }
+                return result;
+            }
+
+            // Once, on exhaustion or close, whichever comes first
+            private void record() {
+                if (!recorded) {
+                    recorded = true;
+                    metrics().recordRows(sql, rows);
+                }
+            }
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object target, InvocationHandler handler) {
+        // Identity semantics for the proxy itself, so collections of statements/result sets behave
+        InvocationHandler withIdentity = (proxy, method, args) -> switch (method.getName()) {
+            case "equals" -> args.length == 1 && proxy == args[0];
+            case "hashCode" -> args == null ? System.identityHashCode(proxy) : handler.invoke(proxy, method, args);
+            case "toString" -> args == null ? "Instrumented[" + target + "]" : handler.invoke(proxy, method, args);
+            default -> handler.invoke(proxy, method, args);
+        };
+        return (T) Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(), new Class<?>[]{type}, withIdentity);
+    }
+}
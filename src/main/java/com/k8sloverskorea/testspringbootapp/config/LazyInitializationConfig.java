@@ -0,0 +1,52 @@
+package com.k8sloverskorea.testspringbootapp.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+
+/**
+ * Marks beans from non-critical packages ({@code app.startup.lazy-packages}, springdoc by default)
+ * as lazy so they are created on first use instead of delaying readiness. Unlike
+ * {@code spring.main.lazy-initialization}, the rest of the context still starts eagerly.
+ */
+@Configuration(proxyBeanMethods = false)
+public class LazyInitializationConfig {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LazyInitializationConfig.class);
+    
+    @Bean
+    static BeanFactoryPostProcessor lazyNonCriticalBeans(Environment environment) {
+        List<String> packages = Binder.get(environment)
+                .bind("app.startup.lazy-packages", Bindable.listOf(String.class))
+                .orElse(List.of());
+        return beanFactory -> {
+            int marked = 0;
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                String className = declaringClassName(definition);
+                if (className != null && !definition.isLazyInit()
+                        && packages.stream().anyMatch(className::startsWith)) {
+                    definition.setLazyInit(true);
+                    marked++;
+                }
+            }
+            logger.info("Marked {} bean definitions lazy (packages={})", marked, packages);
+        };
+    }
+    
+    private static String declaringClassName(BeanDefinition definition) {
+        if (definition instanceof AnnotatedBeanDefinition annotated && annotated.getFactoryMethodMetadata() != null) {
+            return annotated.getFactoryMethodMetadata().getDeclaringClassName();
+        }
+        return definition.getBeanClassName();
+    }
+}
@@ -0,0 +1,85 @@
+package com.k8sloverskorea.testspringbootapp.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logback {@link AsyncAppender} that counts the events it drops and can be switched between
+ * asynchronous and synchronous delivery from configuration (see logback-spring.xml).
+ * <p>
+ * Policy {@code drop}: never block the logging thread; below 20% remaining capacity INFO and lower
+ * events are discarded, and when the queue is full any event is dropped. Policy {@code block}:
+ * nothing is discarded and callers wait for queue space.
+ */
+public class MeteredAsyncAppender extends AsyncAppender {
+    
+    private final LongAdder discarded = new LongAdder();
+    private final LongAdder droppedQueueFull = new LongAdder();
+    private boolean async = true;
+    private String policy = "drop";
+    
+    public void setAsync(boolean async) {
+        this.async = async;
+    }
+    
+    public boolean isAsync() {
+        return async;
+    }
+    
+    public void setPolicy(String policy) {
+        this.policy = policy;
+        if ("block".equalsIgnoreCase(policy)) {
+            setNeverBlock(false);
+            setDiscardingThreshold(0);
+        } else {
+            setNeverBlock(true);
+        }
+    }
+    
+    public String getPolicy() {
+        return policy;
+    }
+    
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (!async) {
+            // Synchronous mode: write straight through on the calling thread
+            for (Iterator<Appender<ILoggingEvent>> it = iteratorForAppenders(); it.hasNext(); ) {
+                it.next().doAppend(event);
+            }
+            return;
+        }
+        super.append(event);
+    }
+    
+    // Only consulted once the queue is below the discarding threshold, so every 'true' is a discard
+    @Override
+    protected boolean isDiscardable(ILoggingEvent event) {
+        boolean discardable = super.isDiscardable(event);
+        if (discardable) {
+            discarded.increment();
+        }
+        return discardable;
+    }
+    
+    // Runs just before the event is offered to the queue; with neverBlock a full queue drops it
+    @Override
+    protected void preprocess(ILoggingEvent event) {
+        if (isNeverBlock() && getRemainingCapacity() == 0) {
+            droppedQueueFull.increment();
+        }
+        super.preprocess(event);
+    }
+    
+    public long getDiscardedCount() {
+        return discarded.sum();
+    }
+    
+    public long getDroppedQueueFullCount() {
+        return droppedQueueFull.sum();
+    }
+}
@@ -0,0 +1,71 @@
+package com.k8sloverskorea.testspringbootapp.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+/**
+ * Writes a returned collection as newline-delimited JSON (one element per line) when the client
+ * asks for {@code application/x-ndjson}. Elements are serialized straight to the response with the
+ * application's {@link ObjectMapper}, without building an enclosing array. Write-only.
+ */
+public class NdjsonHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+    
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter writer;
+    
+    public NdjsonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_NDJSON);
+        this.objectMapper = objectMapper;
+        // Flushing after every element would defeat output buffering
+        this.writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+    
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Collection.class.isAssignableFrom(clazz);
+    }
+    
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+    
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+    
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputMessage.getBody())) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            for (Object item : (Collection<?>) object) {
+                writer.writeValue(generator, item);
+                generator.writeRaw('\n');
+            }
+        }
+    }
+    
+    // Unreachable while canRead is false; reported as a 400 rather than a 500 if ever called
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("NDJSON request bodies are not supported", inputMessage);
+    }
+    
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("NDJSON request bodies are not supported", inputMessage);
+    }
+}
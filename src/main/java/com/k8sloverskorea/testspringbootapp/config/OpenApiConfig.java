@@ -6,6 +6,7 @@ import io.swagger.v3.oas.annotations.info.Info;
 import io.swagger.v3.oas.annotations.info.License;
 import io.swagger.v3.oas.annotations.servers.Server;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 
 @OpenAPIDefinition(
         info = @Info(
@@ -20,5 +21,6 @@ import org.springframework.context.annotation.Configuration;
         }
 )
 @Configuration
+@Lazy
 public class OpenApiConfig {
 }
@@ -1,20 +1,33 @@
 package com.k8sloverskorea.testspringbootapp.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.opentelemetry.api.OpenTelemetry;
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanKind;
 import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
 import io.opentelemetry.exporter.otlp.trace.OtlpGrpcSpanExporter;
 import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
 import io.opentelemetry.sdk.resources.Resource;
 import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.SdkTracerProviderBuilder;
+import io.opentelemetry.sdk.trace.data.LinkData;
 import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingDecision;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.List;
+
 @Configuration
 public class OpenTelemetryConfig {
     
@@ -26,8 +39,41 @@ public class OpenTelemetryConfig {
     @Value("${otel.exporter.otlp.endpoint:http://localhost:4317}")
     private String otlpEndpoint;
     
+    @Value("${management.tracing.enabled:true}")
+    private boolean tracingEnabled;
+    
+    // always_on | always_off | ratio | parentbased_ratio | rate_limited | parentbased_rate_limited
+    @Value("${app.tracing.sampler.type:parentbased_ratio}")
+    private String samplerType;
+    
+    // Shared with Spring's tracing setting so MANAGEMENT_TRACING_SAMPLING_PROBABILITY applies here too
+    @Value("${management.tracing.sampling.probability:1.0}")
+    private double samplingProbability;
+    
+    @Value("${app.tracing.sampler.rate-per-second:100}")
+    private double samplingRatePerSecond;
+    
+    @Value("${app.tracing.export.enabled:true}")
+    private boolean exportEnabled;
+    
+    @Value("${app.tracing.export.max-queue-size:2048}")
+    private int maxQueueSize;
+    
+    @Value("${app.tracing.export.max-export-batch-size:512}")
+    private int maxExportBatchSize;
+    
+    @Value("${app.tracing.export.schedule-delay:5s}")
+    private Duration scheduleDelay;
+    
+    @Value("${app.tracing.export.timeout:30s}")
+    private Duration exportTimeout;
+    
     @Bean
-    public OpenTelemetry openTelemetry() {
+    public OpenTelemetry openTelemetry(MeterRegistry meterRegistry) {
+        if (!tracingEnabled) {
+            logger.info("Tracing disabled (management.tracing.enabled=false), using no-op OpenTelemetry");
+            return OpenTelemetry.noop();
+        }
         logger.info("Configuring OpenTelemetry with service name: {} and OTLP endpoint: {}", 
                    serviceName, otlpEndpoint);
         
@@ -38,21 +84,40 @@ public class OpenTelemetryConfig {
                             AttributeKey.stringKey("service.version"), "1.0.0"
                         )));
         
+        // Outside the try: an invalid sampler setting fails startup instead of silently disabling tracing
+        Sampler sampler = new CountingSampler(createSampler(), meterRegistry);
         try {
-            OtlpGrpcSpanExporter otlpExporter = OtlpGrpcSpanExporter.builder()
-                    .setEndpoint(otlpEndpoint)
-                    .build();
+            SdkTracerProviderBuilder tracerProviderBuilder = SdkTracerProvider.builder()
+                    .setSampler(sampler)
+                    .setResource(resource);
             
-            SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
-                    .addSpanProcessor(BatchSpanProcessor.builder(otlpExporter).build())
-                    .setResource(resource)
-                    .build();
+            if (exportEnabled) {
+                OtlpGrpcSpanExporter otlpExporter = OtlpGrpcSpanExporter.builder()
+                        .setEndpoint(otlpEndpoint)
+                        .build();
+                
+                // The processor reports queue size and processed/dropped spans through this meter provider
+                SpanProcessorMetricsBridge processorMetrics = new SpanProcessorMetricsBridge();
+                SdkMeterProvider processorMeterProvider = SdkMeterProvider.builder()
+                        .registerMetricReader(processorMetrics)
+                        .build();
+                processorMetrics.bindTo(meterRegistry);
+                
+                tracerProviderBuilder.addSpanProcessor(BatchSpanProcessor.builder(otlpExporter)
+                        .setMaxQueueSize(maxQueueSize)
+                        .setMaxExportBatchSize(maxExportBatchSize)
+                        .setScheduleDelay(scheduleDelay)
+                        .setExporterTimeout(exportTimeout)
+                        .setMeterProvider(processorMeterProvider)
+                        .build());
+            }
             
             OpenTelemetrySdk openTelemetry = OpenTelemetrySdk.builder()
-                    .setTracerProvider(tracerProvider)
+                    .setTracerProvider(tracerProviderBuilder.build())
                     .build();
             
-            logger.info("OpenTelemetry configured successfully");
+            logger.info("OpenTelemetry configured successfully (sampler={}, export={}, maxQueueSize={}, maxExportBatchSize={}, scheduleDelay={})",
+                    sampler.getDescription(), exportEnabled, maxQueueSize, maxExportBatchSize, scheduleDelay);
             return openTelemetry;
             
         } catch (Exception e) {
@@ -66,4 +131,69 @@ public class OpenTelemetryConfig {
     public Tracer tracer(OpenTelemetry openTelemetry) {
         return openTelemetry.getTracer(serviceName, "1.0.0");
     }
-}
\ No newline at end of file
+    
+    private Sampler createSampler() {
+        return switch (samplerType.toLowerCase()) {
+            case "always_on" -> Sampler.alwaysOn();
+            case "always_off" -> Sampler.alwaysOff();
+            case "ratio" -> Sampler.traceIdRatioBased(samplingProbability);
+            case "rate_limited" -> rateLimitedSampler();
+            case "parentbased_rate_limited" -> Sampler.parentBased(rateLimitedSampler());
+            case "parentbased_ratio" -> Sampler.parentBased(Sampler.traceIdRatioBased(samplingProbability));
+            default -> {
+                logger.warn("Unknown app.tracing.sampler.type '{}', using parentbased_ratio", samplerType);
+                yield Sampler.parentBased(Sampler.traceIdRatioBased(samplingProbability));
+            }
+        };
+    }
+    
+    // 0 traces per second means no sampling; a negative rate is a configuration error
+    private Sampler rateLimitedSampler() {
+        if (samplingRatePerSecond == 0) {
+            return Sampler.alwaysOff();
+        }
+        if (samplingRatePerSecond < 0) {
+            throw new IllegalStateException("app.tracing.sampler.rate-per-second must not be negative, was " + samplingRatePerSecond);
+        }
+        return new RateLimitingSampler(samplingRatePerSecond);
+    }
+    
+    /**
+     * Counts sampling decisions so the effective sample rate can be checked against the configured one.
+     */
+    private static final class CountingSampler implements Sampler {
+        
+        private final Sampler delegate;
+        private final Counter sampled;
+        private final Counter notSampled;
+        
+        CountingSampler(Sampler delegate, MeterRegistry meterRegistry) {
+            this.delegate = delegate;
+            this.sampled = Counter.builder("tracing.sampler.decisions")
+                    .tag("decision", "sampled")
+                    .description("Root and child span sampling decisions")
+                    .register(meterRegistry);
+            this.notSampled = Counter.builder("tracing.sampler.decisions")
+                    .tag("decision", "not_sampled")
+                    .description("Root and child span sampling decisions")
+                    .register(meterRegistry);
+        }
+        
+        @Override
+        public SamplingResult shouldSample(Context parentContext, String traceId, String name, SpanKind spanKind,
+                                           Attributes attributes, List<LinkData> parentLinks) {
+            SamplingResult result = delegate.shouldSample(parentContext, traceId, name, spanKind, attributes, parentLinks);
+            if (result.getDecision() == SamplingDecision.RECORD_AND_SAMPLE) {
+                sampled.increment();
+            } else {
+                notSampled.increment();
+            }
+            return result;
+        }
+        
+        @Override
+        public String getDescription() {
+            return delegate.getDescription();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.k8sloverskorea.testspringbootapp.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+
+/**
+ * Wires query instrumentation ({@code app.metrics.queries.enabled}): wraps the application
+ * DataSource in an {@link InstrumentedDataSource} and brackets each HTTP request so
+ * {@link QueryMetrics} can attribute statements to the endpoint that ran them. Statements run on
+ * other threads (async streaming bodies, scheduled jobs, the write-behind writer) are still timed
+ * but not counted against a request.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.metrics.queries.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryInstrumentationConfig {
+
+    // Static so the post-processor does not force early creation of this configuration class
+    @Bean
+    static BeanPostProcessor queryInstrumentationDataSourceWrapper(ObjectProvider<QueryMetrics> queryMetrics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof InstrumentedDataSource)) {
+                    return new InstrumentedDataSource(dataSource, queryMetrics);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    OncePerRequestFilter queryStatsFilter(QueryMetrics queryMetrics) {
+        return new QueryStatsFilter(queryMetrics);
+    }
+
+    static final class QueryStatsFilter extends OncePerRequestFilter {
+
+        private final QueryMetrics queryMetrics;
+
+        QueryStatsFilter(QueryMetrics queryMetrics) {
+            this.queryMetrics = queryMetrics;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            queryMetrics.beginRequest();
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                // Same uri tag as http.server.requests; unmatched requests (404, static) share one series
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                queryMetrics.endRequest(request.getMethod(), pattern != null ? pattern.toString() : "UNKNOWN");
+            }
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.k8sloverskorea.testspringbootapp.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.opentelemetry.api.trace.Span;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Records what {@link InstrumentedDataSource} sees: per-statement latency and rows returned, tagged
+ * by normalized SQL (literals and IN lists folded, whitespace collapsed), connection pool wait, and
+ * per-request totals collected by the filter in {@link QueryInstrumentationConfig}.
+ * <p>
+ * Only the first {@code app.metrics.queries.max-statements} distinct statements get their own tag;
+ * later ones are recorded as {@code other} to bound metric cardinality; the same tag is used by the
+ * per-request repeated-statement counter. Latency histogram buckets per statement are opt-in
+ * ({@code app.metrics.queries.histogram}). Statements slower than
+ * {@code slow-query-threshold} are logged. A request that runs the same normalized statement
+ * {@code repeated-statement-threshold} times or more is flagged as a likely N+1 access pattern.
+ */
+@Component
+@ConditionalOnProperty(name = "app.metrics.queries.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryMetrics.class);
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMERIC_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int MAX_TAG_LENGTH = 300;
+    private static final int MAX_NORMALIZED_CACHE = 2000;
+    private static final String OTHER = "other";
+    // Minimum time between two N+1 warnings for the same endpoint and statement
+    private static final long REPEAT_LOG_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.metrics.queries.slow-query-threshold:100ms}")
+    private Duration slowQueryThreshold;
+
+    @Value("${app.metrics.queries.repeated-statement-threshold:10}")
+    private int repeatedStatementThreshold;
+
+    @Value("${app.metrics.queries.max-statements:200}")
+    private int maxStatements;
+
+    // Buckets multiply series by roughly 70 per statement tag
+    @Value("${app.metrics.queries.histogram:false}")
+    private boolean histogram;
+
+    private final Map<String, String> normalized = new ConcurrentHashMap<>();
+    private final Map<String, StatementMeters> statementMeters = new ConcurrentHashMap<>();
+    private final Map<String, Long> repeatLoggedAt = new ConcurrentHashMap<>();
+    private final ThreadLocal<RequestStats> currentRequest = new ThreadLocal<>();
+
+    private Timer connectionWait;
+
+    private record StatementMeters(Timer latency, DistributionSummary rows, Counter slow) {
+    }
+
+    /** Database work done on the request thread, see {@link #beginRequest()}. */
+    public static final class RequestStats {
+        private final Map<String, Integer> executions = new HashMap<>();
+        private int statements;
+        private long queryNanos;
+        private long connectionWaitNanos;
+
+        public int statements() {
+            return statements;
+        }
+
+        public long queryNanos() {
+            return queryNanos;
+        }
+
+        public long connectionWaitNanos() {
+            return connectionWaitNanos;
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        connectionWait = Timer.builder("db.connection.wait")
+                .description("Time to obtain a JDBC connection from the pool")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        logger.info("Query instrumentation enabled (slow-query-threshold {}, repeated-statement-threshold {})",
+                slowQueryThreshold, repeatedStatementThreshold);
+    }
+
+    /** Starts collecting statements run on this thread until {@link #endRequest(String, String)}. */
+    public void beginRequest() {
+        currentRequest.set(new RequestStats());
+    }
+
+    /**
+     * Stops collecting for this thread, records the request totals under {@code method}/{@code uri}
+     * and reports repeated statements.
+     */
+    public RequestStats endRequest(String method, String uri) {
+        RequestStats stats = currentRequest.get();
+        currentRequest.remove();
+        if (stats == null) {
+            return null;
+        }
+        DistributionSummary.builder("db.request.statements")
+                .description("JDBC statements executed per HTTP request")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(stats.statements);
+        Timer.builder("db.request.time")
+                .description("Total statement execution time per HTTP request")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(stats.queryNanos, TimeUnit.NANOSECONDS);
+        Timer.builder("db.request.connection.wait")
+                .description("Total connection pool wait per HTTP request")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(stats.connectionWaitNanos, TimeUnit.NANOSECONDS);
+        stats.executions.forEach((sql, count) -> {
+            if (count < repeatedStatementThreshold) {
+                return;
+            }
+            Counter.builder("db.request.repeated.statements")
+                    .description("Requests that ran one normalized statement at least repeated-statement-threshold times (likely N+1)")
+                    .tag("method", method)
+                    .tag("uri", uri)
+                    .tag("sql", statementMeters.containsKey(sql) ? sql : OTHER)
+                    .register(meterRegistry)
+                    .increment();
+            long now = System.nanoTime();
+            String key = method + " " + uri + " " + sql;
+            Long last = repeatLoggedAt.get(key);
+            if (last == null || now - last > REPEAT_LOG_INTERVAL_NANOS) {
+                if (repeatLoggedAt.size() >= MAX_NORMALIZED_CACHE) {
+                    repeatLoggedAt.clear();
+                }
+                repeatLoggedAt.put(key, now);
+                logger.warn("Possible N+1 in {} {}: statement executed {} times in one request: {}", method, uri, count, sql);
+            }
+        });
+        Span span = Span.current();
+        span.setAttribute("db.statements", stats.statements);
+        span.setAttribute("db.time_ms", stats.queryNanos / 1_000_000.0);
+        span.setAttribute("db.connection_wait_ms", stats.connectionWaitNanos / 1_000_000.0);
+        return stats;
+    }
+
+    void recordConnectionWait(long nanos) {
+        connectionWait.record(nanos, TimeUnit.NANOSECONDS);
+        RequestStats stats = currentRequest.get();
+        if (stats != null) {
+            stats.connectionWaitNanos += nanos;
+        }
+    }
+
+    void recordExecution(String sql, long nanos, int batchSize) {
+        String statement = normalize(sql);
+        StatementMeters meters = metersFor(statement);
+        meters.latency().record(nanos, TimeUnit.NANOSECONDS);
+        RequestStats stats = currentRequest.get();
+        if (stats != null) {
+            stats.statements++;
+            stats.queryNanos += nanos;
+            stats.executions.merge(statement, 1, Integer::sum);
+        }
+        if (nanos >= slowQueryThreshold.toNanos()) {
+            meters.slow().increment();
+            // Normalized: also covers statements with unknown SQL and keeps literal values out of the log
+            logger.warn("Slow query ({} ms{}): {}", String.format("%.1f", nanos / 1_000_000.0),
+                    batchSize > 1 ? ", batch of " + batchSize : "", statement);
+        }
+    }
+
+    void recordRows(String sql, long rows) {
+        metersFor(normalize(sql)).rows().record(rows);
+    }
+
+    String normalize(String sql) {
+        if (sql == null) {
+            return OTHER;
+        }
+        String cached = normalized.get(sql);
+        if (cached != null) {
+            return cached;
+        }
+        String result = STRING_LITERAL.matcher(sql).replaceAll("?");
+        result = NUMERIC_LITERAL.matcher(result).replaceAll("?");
+        result = IN_LIST.matcher(result).replaceAll("in (...)");
+        result = abbreviate(WHITESPACE.matcher(result).replaceAll(" ").trim().toLowerCase(Locale.ROOT));
+        // Statements built with inlined values would otherwise grow this map without bound
+        if (normalized.size() < MAX_NORMALIZED_CACHE) {
+            normalized.put(sql, result);
+        }
+        return result;
+    }
+
+    private StatementMeters metersFor(String statement) {
+        StatementMeters meters = statementMeters.get(statement);
+        if (meters != null) {
+            return meters;
+        }
+        String tag = statementMeters.size() < maxStatements ? statement : OTHER;
+        return statementMeters.computeIfAbsent(tag, this::registerMeters);
+    }
+
+    private StatementMeters registerMeters(String sql) {
+        String type = sql.equals(OTHER) ? OTHER : sql.split(" ", 2)[0];
+        Timer latency = Timer.builder("db.query")
+                .description("JDBC statement execution time by normalized SQL")
+                .tag("sql", sql)
+                .tag("type", type)
+                .publishPercentileHistogram(histogram)
+                .register(meterRegistry);
+        DistributionSummary rows = DistributionSummary.builder("db.query.rows")
+                .description("Rows read from the result set of a query")
+                .tag("sql", sql)
+                .register(meterRegistry);
+        Counter slow = Counter.builder("db.query.slow")
+                .description("Statements slower than app.metrics.queries.slow-query-threshold")
+                .tag("sql", sql)
+                .register(meterRegistry);
+        return new StatementMeters(latency, rows, slow);
+    }
+
+    private static String abbreviate(String sql) {
+        return sql.length() <= MAX_TAG_LENGTH ? sql : sql.substring(0, MAX_TAG_LENGTH) + "...";
+    }
+}
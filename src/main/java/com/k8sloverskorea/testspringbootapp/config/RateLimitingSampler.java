@@ -0,0 +1,56 @@
+package com.k8sloverskorea.testspringbootapp.config;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Samples at most {@code maxPerSecond} new traces per second, allowing a burst of up to one
+ * second's worth (at least one trace, for rates below one per second). Lock-free: the next free
+ * slot time is advanced with a single CAS.
+ */
+public final class RateLimitingSampler implements Sampler {
+    
+    private final double maxPerSecond;
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong nextSlotNanos;
+    
+    public RateLimitingSampler(double maxPerSecond) {
+        if (!(maxPerSecond > 0)) {
+            throw new IllegalArgumentException("maxPerSecond must be positive, was " + maxPerSecond);
+        }
+        this.maxPerSecond = maxPerSecond;
+        this.intervalNanos = Math.max(1L, (long) (1_000_000_000L / maxPerSecond));
+        // A burst shorter than one interval would never leave a free slot
+        this.burstNanos = Math.max(1_000_000_000L, intervalNanos);
+        this.nextSlotNanos = new AtomicLong(System.nanoTime() - burstNanos);
+    }
+    
+    @Override
+    public SamplingResult shouldSample(Context parentContext, String traceId, String name, SpanKind spanKind,
+                                       Attributes attributes, List<LinkData> parentLinks) {
+        long now = System.nanoTime();
+        while (true) {
+            long slot = nextSlotNanos.get();
+            long next = Math.max(slot, now - burstNanos) + intervalNanos;
+            if (next - now > 0) {
+                return SamplingResult.drop();
+            }
+            if (nextSlotNanos.compareAndSet(slot, next)) {
+                return SamplingResult.recordAndSample();
+            }
+        }
+    }
+    
+    @Override
+    public String getDescription() {
+        return "RateLimitingSampler{" + maxPerSecond + "/s}";
+    }
+}
@@ -2,14 +2,28 @@ package com.k8sloverskorea.testspringbootapp.config;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
 import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.boot.web.servlet.context.ServletWebServerInitializedEvent;
 import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.stereotype.Component;
 
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -19,17 +33,45 @@ public class RestartMonitorEndpoint {
     
     private static final Logger logger = LoggerFactory.getLogger(RestartMonitorEndpoint.class);
     
+    // Startup steps reported as timeline phases, keyed by step name
+    private static final Map<String, String> PHASES = Map.of(
+            "spring.boot.application.environment-prepared", "environment.prepare",
+            "spring.boot.application.context-prepared", "context.prepare",
+            "spring.boot.application.context-loaded", "context.load",
+            "spring.context.refresh", "context.refresh",
+            "spring.context.beans.post-process", "context.bean-factory.post-process",
+            "spring.data.repository.scanning", "jpa.repositories.scan",
+            "spring.boot.webserver.create", "tomcat.create",
+            "spring.boot.application.started", "application.started");
+    
+    private static final String BEAN_INSTANTIATE = "spring.beans.instantiate";
+    
+    @Autowired
+    private ApplicationStartup applicationStartup;
+    
+    @Value("${app.startup.timeline.slowest-beans:10}")
+    private int slowestBeans;
+    
     private final AtomicLong restartCount = new AtomicLong(0);
     private Instant lastStartTime;
     private Instant applicationReadyTime;
+    private Instant webServerStartedTime;
+    private Map<String, Object> startupTimeline;
+    
+    @EventListener(ServletWebServerInitializedEvent.class)
+    public void onWebServerInitialized() {
+        webServerStartedTime = Instant.now();
+    }
     
     @EventListener(ApplicationReadyEvent.class)
-    public void onApplicationReady() {
+    public void onApplicationReady(ApplicationReadyEvent event) {
         long count = restartCount.incrementAndGet();
         lastStartTime = Instant.now();
         applicationReadyTime = Instant.now();
+        startupTimeline = buildStartupTimeline(event.getTimeTaken());
         
-        logger.info("Application restart detected - count: {}, ready at: {}", count, applicationReadyTime);
+        logger.info("Application restart detected - count: {}, ready at: {}, jvm start to ready: {} ms",
+                count, applicationReadyTime, startupTimeline.get("jvmStartToReadyMs"));
     }
     
     @ReadOperation
@@ -40,10 +82,74 @@ public class RestartMonitorEndpoint {
         info.put("applicationReadyTime", applicationReadyTime != null ? applicationReadyTime.toString() : null);
         info.put("uptime", getUptime());
         info.put("currentTime", Instant.now().toString());
+        info.put("startup", startupTimeline);
         
         return info;
     }
     
+    private Map<String, Object> buildStartupTimeline(Duration timeTaken) {
+        Instant jvmStart = Instant.ofEpochMilli(ManagementFactory.getRuntimeMXBean().getStartTime());
+        Map<String, Object> startup = new LinkedHashMap<>();
+        startup.put("jvmStartToReadyMs", Duration.between(jvmStart, applicationReadyTime).toMillis());
+        startup.put("springStartToReadyMs", timeTaken != null ? timeTaken.toMillis() : null);
+        startup.put("aotEnabled", AotDetector.useGeneratedArtifacts());
+        startup.put("cdsArchive", ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+                .anyMatch(arg -> arg.startsWith("-XX:SharedArchiveFile")));
+        
+        if (!(applicationStartup instanceof BufferingApplicationStartup buffering)) {
+            startup.put("timeline", "unavailable - application was not started with BufferingApplicationStartup");
+            return startup;
+        }
+        
+        StartupTimeline timeline = buffering.getBufferedTimeline();
+        List<Map<String, Object>> phases = new ArrayList<>();
+        List<StartupTimeline.TimelineEvent> beans = new ArrayList<>();
+        for (StartupTimeline.TimelineEvent event : timeline.getEvents()) {
+            String name = event.getStartupStep().getName();
+            String phase = PHASES.get(name);
+            if (BEAN_INSTANTIATE.equals(name)) {
+                beans.add(event);
+                if ("entityManagerFactory".equals(tag(event.getStartupStep(), "beanName"))) {
+                    phase = "jpa.bootstrap";
+                }
+            }
+            if (phase != null) {
+                phases.add(phase(phase, jvmStart, event.getStartTime(), event.getDuration()));
+            }
+        }
+        if (webServerStartedTime != null) {
+            phases.add(phase("tomcat.started", jvmStart, webServerStartedTime, Duration.ZERO));
+        }
+        // Readiness is not a startup step (the timeline is read from the ready event), so use the event time
+        phases.add(phase("application.ready", jvmStart, applicationReadyTime, Duration.ZERO));
+        phases.sort(Comparator.comparing(p -> (Long) p.get("startOffsetMs")));
+        startup.put("phases", phases);
+        
+        startup.put("slowestBeans", beans.stream()
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(slowestBeans)
+                .map(event -> phase(tag(event.getStartupStep(), "beanName"), jvmStart, event.getStartTime(), event.getDuration()))
+                .toList());
+        return startup;
+    }
+    
+    private static Map<String, Object> phase(String name, Instant jvmStart, Instant start, Duration duration) {
+        Map<String, Object> phase = new LinkedHashMap<>();
+        phase.put("name", name);
+        phase.put("startOffsetMs", Duration.between(jvmStart, start).toMillis());
+        phase.put("durationMs", duration.toMillis());
+        return phase;
+    }
+    
+    private static String tag(StartupStep step, String key) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if (key.equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return null;
+    }
+    
     private String getUptime() {
         if (applicationReadyTime == null) {
             return "Not started";
@@ -56,4 +162,4 @@ public class RestartMonitorEndpoint {
         
         return String.format("%02d:%02d:%02d", hours, minutes, seconds);
     }
-}
\ No newline at end of file
+}
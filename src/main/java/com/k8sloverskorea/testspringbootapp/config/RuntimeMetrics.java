@@ -0,0 +1,276 @@
+package com.k8sloverskorea.testspringbootapp.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JVM runtime metrics sampled at a sub-second interval, complementing the standard Micrometer JVM
+ * binders (jvm.memory.*, jvm.gc.pause, jvm.buffer.*, jvm.threads.*) with values those cannot give:
+ * allocation rate, GC time share, window peaks of heap use, safepoint and virtual thread activity.
+ * <p>
+ * Peaks are kept over {@code app.metrics.runtime.window} so short spikes between Prometheus
+ * scrapes are not lost. Safepoint and virtual thread data come from JFR event streaming.
+ */
+@Component
+@Endpoint(id = "runtime")
+public class RuntimeMetrics {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RuntimeMetrics.class);
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.metrics.runtime.sample-interval:500ms}")
+    private Duration sampleInterval;
+    
+    @Value("${app.metrics.runtime.window:10s}")
+    private Duration window;
+    
+    @Value("${app.metrics.runtime.jfr.enabled:true}")
+    private boolean jfrEnabled;
+    
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+    
+    private record Sample(long timeNanos, long heapUsed, long allocatedBytes, long gcTimeMs,
+                          long directBytes, int platformThreads) {
+    }
+    
+    private final Deque<Sample> samples = new ArrayDeque<>();
+    private final com.sun.management.ThreadMXBean threadBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final List<GarbageCollectorMXBean> gcBeans = ManagementFactory.getGarbageCollectorMXBeans();
+    private final BufferPoolMXBean directPool = ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+            .filter(pool -> "direct".equals(pool.getName()))
+            .findFirst()
+            .orElse(null);
+    
+    private ScheduledExecutorService sampler;
+    private RecordingStream recordingStream;
+    private Timer safepointTimer;
+    private Timer safepointSyncTimer;
+    private Counter virtualThreadsStarted;
+    private Counter virtualThreadsEnded;
+    private Counter virtualThreadSubmitFailed;
+    
+    @PostConstruct
+    void start() {
+        Gauge.builder("runtime.allocation.rate", this, m -> m.allocationRate())
+                .baseUnit("bytes")
+                .description("Heap allocation rate (bytes per second) over the last sample interval")
+                .register(meterRegistry);
+        Gauge.builder("runtime.allocation.rate.max", this, m -> m.windowMax(Metric.ALLOCATION_RATE))
+                .baseUnit("bytes")
+                .description("Peak heap allocation rate (bytes per second) within the sampling window")
+                .register(meterRegistry);
+        Gauge.builder("runtime.gc.overhead", this, m -> m.gcOverhead())
+                .description("Fraction of wall time spent in GC over the sampling window")
+                .register(meterRegistry);
+        Gauge.builder("runtime.heap.used.max", this, m -> m.windowMax(Metric.HEAP_USED))
+                .baseUnit("bytes")
+                .description("Peak heap usage within the sampling window")
+                .register(meterRegistry);
+        Gauge.builder("runtime.direct.used.max", this, m -> m.windowMax(Metric.DIRECT_USED))
+                .baseUnit("bytes")
+                .description("Peak direct buffer usage within the sampling window")
+                .register(meterRegistry);
+        Gauge.builder("runtime.threads.platform.max", this, m -> m.windowMax(Metric.PLATFORM_THREADS))
+                .description("Peak live platform thread count within the sampling window")
+                .register(meterRegistry);
+        
+        sample();
+        sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "runtime-metrics-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sampler.scheduleAtFixedRate(this::sampleSafely, sampleInterval.toMillis(), sampleInterval.toMillis(), TimeUnit.MILLISECONDS);
+        
+        if (jfrEnabled) {
+            startJfr();
+        }
+        logger.info("Runtime metrics sampling every {} over a {} window (jfr={})", sampleInterval, window, jfrEnabled);
+    }
+    
+    @PreDestroy
+    void stop() {
+        if (sampler != null) {
+            sampler.shutdownNow();
+        }
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+    
+    private void startJfr() {
+        safepointTimer = Timer.builder("runtime.safepoint")
+                .description("Safepoint operations (JFR jdk.SafepointBegin)")
+                .register(meterRegistry);
+        safepointSyncTimer = Timer.builder("runtime.safepoint.sync")
+                .description("Time to bring all threads to a safepoint (JFR jdk.SafepointStateSynchronization)")
+                .register(meterRegistry);
+        try {
+            recordingStream = new RecordingStream();
+            recordingStream.enable("jdk.SafepointBegin");
+            recordingStream.enable("jdk.SafepointStateSynchronization");
+            recordingStream.onEvent("jdk.SafepointBegin", event -> safepointTimer.record(event.getDuration()));
+            recordingStream.onEvent("jdk.SafepointStateSynchronization", event -> safepointSyncTimer.record(event.getDuration()));
+            if (virtualThreadsEnabled) {
+                // Start/end events cost something per thread, so only subscribe in virtual thread mode
+                virtualThreadsStarted = Counter.builder("runtime.threads.virtual.started").register(meterRegistry);
+                virtualThreadsEnded = Counter.builder("runtime.threads.virtual.ended").register(meterRegistry);
+                virtualThreadSubmitFailed = Counter.builder("runtime.threads.virtual.submit.failed").register(meterRegistry);
+                Gauge.builder("runtime.threads.virtual.live", this, m -> m.liveVirtualThreads())
+                        .description("Virtual threads started minus ended since startup")
+                        .register(meterRegistry);
+                recordingStream.enable("jdk.VirtualThreadStart");
+                recordingStream.enable("jdk.VirtualThreadEnd");
+                recordingStream.enable("jdk.VirtualThreadSubmitFailed");
+                recordingStream.onEvent("jdk.VirtualThreadStart", event -> virtualThreadsStarted.increment());
+                recordingStream.onEvent("jdk.VirtualThreadEnd", event -> virtualThreadsEnded.increment());
+                recordingStream.onEvent("jdk.VirtualThreadSubmitFailed", event -> virtualThreadSubmitFailed.increment());
+            }
+            recordingStream.startAsync();
+        } catch (Exception e) {
+            logger.warn("Could not start JFR runtime event stream; safepoint/virtual thread metrics unavailable", e);
+            recordingStream = null;
+        }
+    }
+    
+    private void sampleSafely() {
+        try {
+            sample();
+        } catch (Exception e) {
+            logger.debug("Runtime metrics sample failed", e);
+        }
+    }
+    
+    private void sample() {
+        long gcTime = 0;
+        for (GarbageCollectorMXBean gc : gcBeans) {
+            gcTime += Math.max(0, gc.getCollectionTime());
+        }
+        Sample sample = new Sample(
+                System.nanoTime(),
+                ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed(),
+                threadBean.getTotalThreadAllocatedBytes(),
+                gcTime,
+                directPool != null ? directPool.getMemoryUsed() : 0L,
+                threadBean.getThreadCount());
+        synchronized (samples) {
+            samples.addLast(sample);
+            while (samples.size() > 2 && sample.timeNanos() - samples.peekFirst().timeNanos() > window.toNanos()) {
+                samples.removeFirst();
+            }
+        }
+    }
+    
+    private enum Metric { HEAP_USED, DIRECT_USED, PLATFORM_THREADS, ALLOCATION_RATE }
+    
+    private double windowMax(Metric metric) {
+        synchronized (samples) {
+            double max = 0;
+            Sample previous = null;
+            for (Sample sample : samples) {
+                double value = switch (metric) {
+                    case HEAP_USED -> sample.heapUsed();
+                    case DIRECT_USED -> sample.directBytes();
+                    case PLATFORM_THREADS -> sample.platformThreads();
+                    case ALLOCATION_RATE -> previous == null ? 0 : rate(previous.allocatedBytes(), sample.allocatedBytes(), previous, sample);
+                };
+                max = Math.max(max, value);
+                previous = sample;
+            }
+            return max;
+        }
+    }
+    
+    private double allocationRate() {
+        synchronized (samples) {
+            if (samples.size() < 2) {
+                return 0;
+            }
+            Iterator<Sample> newestFirst = samples.descendingIterator();
+            Sample last = newestFirst.next();
+            Sample previous = newestFirst.next();
+            return rate(previous.allocatedBytes(), last.allocatedBytes(), previous, last);
+        }
+    }
+    
+    private double gcOverhead() {
+        synchronized (samples) {
+            if (samples.size() < 2) {
+                return 0;
+            }
+            Sample first = samples.peekFirst();
+            Sample last = samples.peekLast();
+            double wallMs = (last.timeNanos() - first.timeNanos()) / 1_000_000.0d;
+            return wallMs <= 0 ? 0 : Math.min(1.0d, (last.gcTimeMs() - first.gcTimeMs()) / wallMs);
+        }
+    }
+    
+    private double liveVirtualThreads() {
+        return virtualThreadsStarted == null ? 0 : virtualThreadsStarted.count() - virtualThreadsEnded.count();
+    }
+    
+    private static double rate(long from, long to, Sample previous, Sample current) {
+        double seconds = (current.timeNanos() - previous.timeNanos()) / 1_000_000_000.0d;
+        return seconds <= 0 ? 0 : Math.max(0, to - from) / seconds;
+    }
+    
+    @ReadOperation
+    public Map<String, Object> runtimeInfo() {
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("heapUsedBytes", heap.getUsed());
+        info.put("heapCommittedBytes", heap.getCommitted());
+        info.put("heapMaxBytes", heap.getMax());
+        info.put("heapUsedMaxInWindowBytes", (long) windowMax(Metric.HEAP_USED));
+        info.put("allocationRateBytesPerSecond", Math.round(allocationRate()));
+        info.put("allocationRateMaxInWindowBytesPerSecond", Math.round(windowMax(Metric.ALLOCATION_RATE)));
+        info.put("gcOverhead", gcOverhead());
+        info.put("directBufferUsedBytes", directPool != null ? directPool.getMemoryUsed() : null);
+        info.put("directBufferCount", directPool != null ? directPool.getCount() : null);
+        info.put("platformThreads", threadBean.getThreadCount());
+        info.put("daemonThreads", threadBean.getDaemonThreadCount());
+        info.put("peakThreads", threadBean.getPeakThreadCount());
+        info.put("liveVirtualThreads", virtualThreadsStarted != null ? (long) liveVirtualThreads() : null);
+        info.put("safepoints", safepointTimer != null ? safepointTimer.count() : null);
+        info.put("safepointTotalMs", safepointTimer != null ? safepointTimer.totalTime(TimeUnit.MILLISECONDS) : null);
+        info.put("sampleInterval", sampleInterval.toString());
+        info.put("window", window.toString());
+        info.put("jvm", System.getProperty("java.vm.name") + " " + System.getProperty("java.vm.version"));
+        info.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        info.put("uptimeMs", ManagementFactory.getRuntimeMXBean().getUptime());
+        info.put("currentTime", Instant.now().toString());
+        return info;
+    }
+}
@@ -0,0 +1,83 @@
+package com.k8sloverskorea.testspringbootapp.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.metrics.InstrumentType;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.data.LongPointData;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.data.MetricDataType;
+import io.opentelemetry.sdk.metrics.export.CollectionRegistration;
+import io.opentelemetry.sdk.metrics.export.MetricReader;
+
+import java.util.Collection;
+
+/**
+ * Pull-based OpenTelemetry {@link MetricReader} that exposes the self-metrics of the
+ * {@code BatchSpanProcessor} (queue size, processed and dropped spans) as Micrometer meters,
+ * collected on each scrape.
+ */
+public class SpanProcessorMetricsBridge implements MetricReader {
+    
+    private static final String QUEUE_SIZE = "queueSize";
+    private static final String PROCESSED_SPANS = "processedSpans";
+    private static final AttributeKey<Boolean> DROPPED = AttributeKey.booleanKey("dropped");
+    
+    private volatile CollectionRegistration registration = CollectionRegistration.noop();
+    
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("tracing.span.queue.size", this, bridge -> bridge.sum(QUEUE_SIZE, null))
+                .description("Spans waiting in the BatchSpanProcessor queue")
+                .register(registry);
+        FunctionCounter.builder("tracing.spans.exported", this, bridge -> bridge.sum(PROCESSED_SPANS, false))
+                .description("Spans handed to the exporter by the BatchSpanProcessor")
+                .register(registry);
+        FunctionCounter.builder("tracing.spans.dropped", this, bridge -> bridge.sum(PROCESSED_SPANS, true))
+                .description("Spans dropped because the BatchSpanProcessor queue was full")
+                .register(registry);
+    }
+    
+    // Sums the points of a processor metric, optionally filtered by its boolean 'dropped' attribute
+    private double sum(String metricName, Boolean dropped) {
+        double total = 0;
+        Collection<MetricData> metrics = registration.collectAllMetrics();
+        for (MetricData metric : metrics) {
+            if (!metric.getName().equals(metricName)) {
+                continue;
+            }
+            Collection<LongPointData> points = metric.getType() == MetricDataType.LONG_SUM
+                    ? metric.getLongSumData().getPoints()
+                    : metric.getLongGaugeData().getPoints();
+            for (LongPointData point : points) {
+                Boolean pointDropped = point.getAttributes().get(DROPPED);
+                if (dropped == null || dropped.equals(pointDropped)) {
+                    total += point.getValue();
+                }
+            }
+        }
+        return total;
+    }
+    
+    @Override
+    public void register(CollectionRegistration registration) {
+        this.registration = registration;
+    }
+    
+    @Override
+    public AggregationTemporality getAggregationTemporality(InstrumentType instrumentType) {
+        return AggregationTemporality.CUMULATIVE;
+    }
+    
+    @Override
+    public CompletableResultCode forceFlush() {
+        return CompletableResultCode.ofSuccess();
+    }
+    
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+}
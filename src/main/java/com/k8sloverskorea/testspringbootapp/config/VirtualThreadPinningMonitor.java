@@ -0,0 +1,139 @@
+package com.k8sloverskorea.testspringbootapp.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reports the active execution mode and detects virtual threads pinned to their carrier
+ * (e.g. blocking inside {@code synchronized}) by streaming the JFR {@code jdk.VirtualThreadPinned} event.
+ */
+@Component
+@Endpoint(id = "virtual-threads")
+public class VirtualThreadPinningMonitor {
+    
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int RECENT_EVENTS = 20;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+    
+    @Value("${app.threads.pinning-monitor.enabled:true}")
+    private boolean monitorEnabled;
+    
+    @Value("${app.threads.pinning-monitor.threshold:20ms}")
+    private Duration threshold;
+    
+    private RecordingStream recordingStream;
+    private Counter pinnedCounter;
+    private Timer pinnedTimer;
+    private final Deque<Map<String, Object>> recentEvents = new ArrayDeque<>();
+    
+    @PostConstruct
+    void start() {
+        logger.info("Execution mode: {} threads", virtualThreadsEnabled ? "virtual" : "platform");
+        if (!virtualThreadsEnabled || !monitorEnabled) {
+            return;
+        }
+        pinnedCounter = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual thread pinning events longer than the configured threshold")
+                .register(meterRegistry);
+        pinnedTimer = Timer.builder("jvm.threads.virtual.pinned.duration")
+                .description("Time virtual threads spent pinned to their carrier thread")
+                .register(meterRegistry);
+        try {
+            recordingStream = new RecordingStream();
+            recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+            recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+            recordingStream.startAsync();
+            logger.info("Virtual thread pinning monitor started (threshold={})", threshold);
+        } catch (Exception e) {
+            logger.warn("Could not start JFR pinning monitor; pinning will not be reported", e);
+            recordingStream = null;
+        }
+    }
+    
+    @PreDestroy
+    void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+    
+    private void onPinned(RecordedEvent event) {
+        pinnedCounter.increment();
+        pinnedTimer.record(event.getDuration());
+        
+        Map<String, Object> pin = new HashMap<>();
+        pin.put("time", event.getStartTime().toString());
+        pin.put("durationMs", event.getDuration().toMillis());
+        pin.put("thread", event.getThread() != null ? event.getThread().getJavaName() : null);
+        List<String> frames = new ArrayList<>();
+        if (event.getStackTrace() != null) {
+            for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+                if (frames.size() == 8) {
+                    break;
+                }
+                frames.add(frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber());
+            }
+        }
+        pin.put("stack", frames);
+        logger.warn("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), frames.isEmpty() ? "?" : frames.get(0));
+        synchronized (recentEvents) {
+            if (recentEvents.size() == RECENT_EVENTS) {
+                recentEvents.removeFirst();
+            }
+            recentEvents.addLast(pin);
+        }
+    }
+    
+    public String executionMode() {
+        return virtualThreadsEnabled ? "virtual" : "platform";
+    }
+    
+    public long pinnedCount() {
+        return pinnedCounter != null ? (long) pinnedCounter.count() : 0L;
+    }
+    
+    @ReadOperation
+    public Map<String, Object> virtualThreadInfo() {
+        Map<String, Object> info = new HashMap<>();
+        info.put("executionMode", executionMode());
+        info.put("pinningMonitorActive", recordingStream != null);
+        info.put("pinningThreshold", threshold.toString());
+        info.put("pinnedCount", pinnedCount());
+        info.put("pinnedTotalMs", pinnedTimer != null ? (long) pinnedTimer.totalTime(TimeUnit.MILLISECONDS) : 0L);
+        synchronized (recentEvents) {
+            info.put("recentPinnedEvents", new ArrayList<>(recentEvents));
+        }
+        info.put("currentTime", Instant.now().toString());
+        return info;
+    }
+}
@@ -0,0 +1,52 @@
+package com.k8sloverskorea.testspringbootapp.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Extra response formats for service-to-service consumers, chosen by the {@code Accept} header:
+ * CBOR ({@code application/cbor}), Smile ({@code application/x-jackson-smile}) and NDJSON
+ * ({@code application/x-ndjson}, collections only). They are appended after the JSON converter so
+ * JSON stays the default for clients that accept any type. The binary formats are built from Boot's
+ * Jackson builder (same modules and settings) but write dates as numeric timestamps.
+ */
+@Configuration
+public class WebFormatConfig implements WebMvcConfigurer {
+    
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    
+    @Autowired
+    private ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+        converters.add(new MappingJackson2CborHttpMessageConverter(binaryMapper(new CBORFactory())));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(binaryMapper(new SmileFactory())));
+        converters.add(new NdjsonHttpMessageConverter(objectMapper));
+    }
+    
+    private ObjectMapper binaryMapper(JsonFactory factory) {
+        return objectMapperBuilder.getObject()
+                .factory(factory)
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+}
@@ -1,6 +1,12 @@
 package com.k8sloverskorea.testspringbootapp.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.k8sloverskorea.testspringbootapp.config.WebFormatConfig;
+import com.k8sloverskorea.testspringbootapp.model.EntityPage;
+import com.k8sloverskorea.testspringbootapp.model.EntitySearchResult;
 import com.k8sloverskorea.testspringbootapp.model.TestEntity;
+import com.k8sloverskorea.testspringbootapp.service.EntityChangeFeed;
 import com.k8sloverskorea.testspringbootapp.service.TestEntityService;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.Tracer;
@@ -10,12 +16,28 @@ import io.swagger.v3.oas.annotations.Parameter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @RestController
 @RequestMapping("/api/entities")
@@ -30,27 +52,122 @@ public class TestEntityController {
     @Autowired
     private Tracer tracer;
     
-    @GetMapping
-    @Operation(summary = "엔티티 전체 조회", description = "모든 TestEntity 목록을 반환합니다.")
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private EntityChangeFeed changeFeed;
+    
+    @Value("${app.entities.batch.max-size:10000}")
+    private int maxBatchSize;
+    
+    @Value("${app.entities.write-behind.default-ack:commit}")
+    private String defaultAck;
+    
+    @Value("${app.entities.write-behind.commit-timeout:30s}")
+    private Duration commitTimeout;
+    
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, WebFormatConfig.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "엔티티 목록 조회", description = "ID 순으로 최대 app.entities.page.max-size 개의 TestEntity 목록을 반환합니다. 더 있으면 X-Next-Cursor 헤더와 Link(rel=next) 헤더로 /api/entities/page의 다음 커서를 알려줍니다. 전체가 필요하면 /api/entities/stream을 사용하세요. Accept 헤더로 JSON(기본), CBOR, Smile, NDJSON 형식을 선택할 수 있습니다.")
     public ResponseEntity<List<TestEntity>> getAllEntities() {
         Span span = tracer.spanBuilder("get-all-entities-endpoint").startSpan();
         try {
-            logger.info("GET /api/entities - Retrieving all entities");
-            List<TestEntity> entities = entityService.getAllEntities();
-            return ResponseEntity.ok(entities);
+            logger.debug("GET /api/entities - Retrieving first page of entities");
+            EntityPage page = entityService.getAllEntities();
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.hasMore()) {
+                response.header(NEXT_CURSOR_HEADER, String.valueOf(page.nextCursor()))
+                        .header(HttpHeaders.LINK, "</api/entities/page?afterId=" + page.nextCursor() + ">; rel=\"next\"");
+            }
+            return response.body(page.items());
+        } finally {
+            span.end();
+        }
+    }
+    
+    @GetMapping("/page")
+    @Operation(summary = "엔티티 페이지 조회", description = "ID 기준 키셋(커서) 페이지네이션으로 엔티티를 조회합니다. 응답의 nextCursor를 다음 요청의 afterId로 전달합니다.")
+    public ResponseEntity<EntityPage> getEntityPage(
+            @Parameter(description = "이 ID 이후의 엔티티부터 조회 (첫 페이지는 생략)") @RequestParam(required = false) Long afterId,
+            @Parameter(description = "페이지 크기 (최대 app.entities.page.max-size)") @RequestParam(defaultValue = "100") int limit) {
+        Span span = tracer.spanBuilder("get-entity-page-endpoint").startSpan();
+        try {
+            logger.debug("GET /api/entities/page?afterId={}&limit={} - Retrieving entity page", afterId, limit);
+            return ResponseEntity.ok(entityService.getEntityPage(afterId, limit));
+        } finally {
+            span.end();
+        }
+    }
+    
+    @GetMapping("/stream")
+    @Operation(summary = "엔티티 스트리밍 조회", description = "전체 엔티티를 메모리에 적재하지 않고 DB 커서에서 바로 JSON 배열(format=json) 또는 NDJSON(format=ndjson)으로 스트리밍합니다.")
+    public ResponseEntity<StreamingResponseBody> streamEntities(
+            @Parameter(description = "출력 형식: json 또는 ndjson") @RequestParam(defaultValue = "json") String format) {
+        logger.info("GET /api/entities/stream?format={} - Streaming all entities", format);
+        boolean ndjson = "ndjson".equalsIgnoreCase(format);
+        StreamingResponseBody body = out -> {
+            Span span = tracer.spanBuilder("stream-entities-endpoint").startSpan();
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                // Keep the servlet stream open; the container closes it after the body returns
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                if (ndjson) {
+                    // Lines are separated explicitly, so drop Jackson's default root separator
+                    generator.setRootValueSeparator(null);
+                } else {
+                    generator.writeStartArray();
+                }
+                entityService.streamAllEntities(entity -> {
+                    try {
+                        generator.writeObject(entity);
+                        if (ndjson) {
+                            generator.writeRaw('\n');
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                if (!ndjson) {
+                    generator.writeEndArray();
+                }
+            } finally {
+                span.end();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+    
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "엔티티 변경 스트림 (SSE)", description = "엔티티 생성/수정/삭제 이벤트를 Server-Sent Events로 전송합니다. 재연결 시 Last-Event-ID 헤더(또는 lastEventId 파라미터)로 이어서 수신하며, 보관 범위를 벗어나면 reset 이벤트를 보냅니다. 이 인스턴스에서 발생한 변경만 포함됩니다.")
+    public ResponseEntity<SseEmitter> streamChanges(
+            @Parameter(description = "마지막으로 받은 이벤트 ID (EventSource가 재연결 시 자동 전송)") @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @Parameter(description = "Last-Event-ID 헤더를 보낼 수 없는 클라이언트용 재개 위치") @RequestParam(required = false) String lastEventId) {
+        Span span = tracer.spanBuilder("stream-entity-changes-endpoint").startSpan();
+        try {
+            String resumeFrom = lastEventIdHeader != null ? lastEventIdHeader : lastEventId;
+            logger.info("GET /api/entities/changes - Subscribing to entity changes (Last-Event-ID {})", resumeFrom);
+            return changeFeed.subscribe(resumeFrom)
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                            .header(HttpHeaders.RETRY_AFTER, "5")
+                            .build());
         } finally {
             span.end();
         }
     }
     
     @GetMapping("/{id}")
-    @Operation(summary = "엔티티 단건 조회", description = "ID로 TestEntity를 조회합니다.")
+    @Operation(summary = "엔티티 단건 조회", description = "ID로 TestEntity를 조회합니다. 응답의 ETag(엔티티 버전)를 If-None-Match로 보내면 변경이 없을 때 본문 없이 304를 반환합니다.")
     public ResponseEntity<TestEntity> getEntityById(@Parameter(description = "조회할 엔티티의 ID") @PathVariable Long id) {
         Span span = tracer.spanBuilder("get-entity-by-id-endpoint").startSpan();
         try {
-            logger.info("GET /api/entities/{} - Retrieving entity by id", id);
+            logger.debug("GET /api/entities/{} - Retrieving entity by id", id);
             Optional<TestEntity> entity = entityService.getEntityById(id);
-            return entity.map(ResponseEntity::ok)
+            // Spring MVC answers a matching If-None-Match with 304 and skips serializing the body
+            return entity.map(e -> ResponseEntity.ok().eTag(etag(e)).body(e))
                          .orElse(ResponseEntity.notFound().build());
         } finally {
             span.end();
@@ -58,26 +175,71 @@ public class TestEntityController {
     }
     
     @PostMapping
-    @Operation(summary = "엔티티 생성", description = "요청 본문의 TestEntity로 새 엔티티를 생성합니다.")
-    public ResponseEntity<TestEntity> createEntity(@RequestBody TestEntity entity) {
+    @Operation(summary = "엔티티 생성", description = "요청 본문의 TestEntity로 새 엔티티를 생성합니다. write-behind 모드(app.entities.write-behind.enabled)에서는 버퍼에 적재 후 묶음 트랜잭션으로 저장하며, ack=enqueue면 적재 즉시 202, ack=commit이면 커밋 후 201을 반환합니다. 버퍼가 가득 차면 503을 반환합니다.")
+    public ResponseEntity<TestEntity> createEntity(
+            @RequestBody TestEntity entity,
+            @Parameter(description = "write-behind 모드의 응답 시점: enqueue(버퍼 적재 시) 또는 commit(DB 커밋 시, 기본값은 app.entities.write-behind.default-ack)") @RequestParam(required = false) String ack) {
         Span span = tracer.spanBuilder("create-entity-endpoint").startSpan();
         try {
             logger.info("POST /api/entities - Creating new entity: {}", entity.getName());
-            TestEntity createdEntity = entityService.createEntity(entity);
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdEntity);
+            if (!entityService.isWriteBehindEnabled()) {
+                TestEntity createdEntity = entityService.createEntity(entity);
+                return ResponseEntity.status(HttpStatus.CREATED).eTag(etag(createdEntity)).body(createdEntity);
+            }
+            String ackMode = ack != null ? ack : defaultAck;
+            if (!"enqueue".equalsIgnoreCase(ackMode) && !"commit".equalsIgnoreCase(ackMode)) {
+                return ResponseEntity.badRequest().build();
+            }
+            CompletableFuture<TestEntity> committed;
+            try {
+                committed = entityService.submitEntity(entity);
+            } catch (RejectedExecutionException e) {
+                logger.warn("POST /api/entities - Write-behind buffer rejected entity: {}", e.getMessage());
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+            }
+            if ("enqueue".equalsIgnoreCase(ackMode)) {
+                // Queued only: no id yet, and the insert can still fail. The writer saves its own copy
+                return ResponseEntity.accepted().body(entity);
+            }
+            try {
+                TestEntity createdEntity = committed.get(commitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+                return ResponseEntity.status(HttpStatus.CREATED).eTag(etag(createdEntity)).body(createdEntity);
+            } catch (TimeoutException e) {
+                // Still queued; the entity will be written, but this client stops waiting
+                logger.warn("POST /api/entities - Commit not confirmed within {}", commitTimeout);
+                return ResponseEntity.accepted().body(entity);
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+            }
         } finally {
             span.end();
         }
     }
     
     @PutMapping("/{id}")
-    @Operation(summary = "엔티티 수정", description = "ID에 해당하는 엔티티를 요청 본문 값으로 업데이트합니다.")
-    public ResponseEntity<TestEntity> updateEntity(@Parameter(description = "수정할 엔티티의 ID") @PathVariable Long id, @RequestBody TestEntity entity) {
+    @Operation(summary = "엔티티 수정", description = "ID에 해당하는 엔티티를 요청 본문 값으로 업데이트합니다. If-Match에 조회 시 받은 ETag를 보내면 그 사이 다른 수정이 있었을 때 412를 반환하며, If-Match 없이 동시 수정이 충돌하면 409를 반환합니다.")
+    public ResponseEntity<TestEntity> updateEntity(
+            @Parameter(description = "수정할 엔티티의 ID") @PathVariable Long id,
+            @Parameter(description = "조회 시 받은 ETag (선택)") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody TestEntity entity) {
         Span span = tracer.spanBuilder("update-entity-endpoint").startSpan();
         try {
-            logger.info("PUT /api/entities/{} - Updating entity", id);
-            TestEntity updatedEntity = entityService.updateEntity(id, entity);
-            return ResponseEntity.ok(updatedEntity);
+            logger.info("PUT /api/entities/{} - Updating entity (If-Match: {})", id, ifMatch);
+            Long expectedVersion = null;
+            if (ifMatch != null && !"*".equals(ifMatch.trim())) {
+                expectedVersion = parseVersion(ifMatch);
+                if (expectedVersion == null) {
+                    return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+                }
+            }
+            TestEntity updatedEntity = entityService.updateEntity(id, entity, expectedVersion);
+            return ResponseEntity.ok().eTag(etag(updatedEntity)).body(updatedEntity);
+        } catch (OptimisticLockingFailureException e) {
+            logger.info("PUT /api/entities/{} - Version conflict: {}", id, e.getMessage());
+            return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         } finally {
@@ -100,16 +262,92 @@ public class TestEntityController {
         }
     }
     
-    @GetMapping("/search")
-    @Operation(summary = "엔티티 검색", description = "이름에 지정한 키워드가 포함된 엔티티를 검색합니다.")
-    public ResponseEntity<List<TestEntity>> searchEntities(@Parameter(description = "이름 검색 키워드") @RequestParam String name) {
+    @GetMapping(value = "/search", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, WebFormatConfig.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "엔티티 검색", description = "이름에 지정한 키워드가 포함된 엔티티를 대소문자 구분 없이 검색합니다. 인메모리 트라이그램 인덱스를 사용하며, 전체 일치 건수는 X-Total-Count 헤더로 반환합니다. Accept 헤더로 JSON(기본), CBOR, Smile, NDJSON 형식을 선택할 수 있습니다.")
+    public ResponseEntity<List<TestEntity>> searchEntities(
+            @Parameter(description = "이름 검색 키워드") @RequestParam String name,
+            @Parameter(description = "건너뛸 결과 수") @RequestParam(defaultValue = "0") int offset,
+            @Parameter(description = "최대 결과 수 (최대 app.entities.page.max-size)") @RequestParam(defaultValue = "100") int limit) {
         Span span = tracer.spanBuilder("search-entities-endpoint").startSpan();
         try {
-            logger.info("GET /api/entities/search?name={} - Searching entities", name);
-            List<TestEntity> entities = entityService.searchEntitiesByName(name);
-            return ResponseEntity.ok(entities);
+            logger.debug("GET /api/entities/search?name={}&offset={}&limit={} - Searching entities", name, offset, limit);
+            EntitySearchResult result = entityService.searchEntitiesByName(name, offset, limit);
+            return ResponseEntity.ok()
+                    .header("X-Total-Count", String.valueOf(result.total()))
+                    .body(result.items());
         } finally {
             span.end();
         }
     }
-}
\ No newline at end of file
+    
+    @PostMapping("/batch")
+    @Operation(summary = "엔티티 일괄 생성", description = "요청 본문의 TestEntity 목록을 하나의 트랜잭션에서 JDBC 배치로 생성합니다. 최대 건수는 app.entities.batch.max-size입니다.")
+    public ResponseEntity<List<TestEntity>> createEntities(@RequestBody List<TestEntity> entities) {
+        Span span = tracer.spanBuilder("create-entities-batch-endpoint").startSpan();
+        try {
+            logger.info("POST /api/entities/batch - Creating {} entities", entities.size());
+            if (entities.size() > maxBatchSize) {
+                return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+            }
+            List<TestEntity> createdEntities = entityService.createEntities(entities);
+            return ResponseEntity.status(HttpStatus.CREATED).body(createdEntities);
+        } finally {
+            span.end();
+        }
+    }
+    
+    @PutMapping("/batch")
+    @Operation(summary = "엔티티 일괄 수정", description = "요청 본문의 각 TestEntity(id 필수)로 기존 엔티티를 일괄 업데이트합니다. 존재하지 않는 ID는 건너뜁니다.")
+    public ResponseEntity<List<TestEntity>> updateEntities(@RequestBody List<TestEntity> entities) {
+        Span span = tracer.spanBuilder("update-entities-batch-endpoint").startSpan();
+        try {
+            logger.info("PUT /api/entities/batch - Updating {} entities", entities.size());
+            if (entities.size() > maxBatchSize) {
+                return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+            }
+            return ResponseEntity.ok(entityService.updateEntities(entities));
+        } catch (OptimisticLockingFailureException e) {
+            logger.info("PUT /api/entities/batch - Version conflict, batch rolled back: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } finally {
+            span.end();
+        }
+    }
+    
+    @DeleteMapping("/batch")
+    @Operation(summary = "엔티티 일괄 삭제", description = "요청 본문의 ID 목록에 해당하는 엔티티를 일괄 삭제하고 삭제 건수를 반환합니다.")
+    public ResponseEntity<Map<String, Object>> deleteEntities(@RequestBody List<Long> ids) {
+        Span span = tracer.spanBuilder("delete-entities-batch-endpoint").startSpan();
+        try {
+            logger.info("DELETE /api/entities/batch - Deleting {} entities", ids.size());
+            if (ids.size() > maxBatchSize) {
+                return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+            }
+            int deleted = entityService.deleteEntities(ids);
+            Map<String, Object> response = new HashMap<>();
+            response.put("requested", ids.size());
+            response.put("deleted", deleted);
+            return ResponseEntity.ok(response);
+        } finally {
+            span.end();
+        }
+    }
+    
+    // Strong ETag from the entity version, e.g. "3"
+    private static String etag(TestEntity entity) {
+        return "\"" + entity.getVersion() + "\"";
+    }
+    
+    // Version from an If-Match value; weak or malformed tags can never match and yield null
+    private static Long parseVersion(String ifMatch) {
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/") || tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return null;
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
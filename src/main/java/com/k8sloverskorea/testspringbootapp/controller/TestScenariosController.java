@@ -1,5 +1,14 @@
 package com.k8sloverskorea.testspringbootapp.controller;
 
+import com.k8sloverskorea.testspringbootapp.config.ConcurrencyLimitExempt;
+import com.k8sloverskorea.testspringbootapp.config.VirtualThreadPinningMonitor;
+import com.k8sloverskorea.testspringbootapp.model.ScenarioJob;
+import com.k8sloverskorea.testspringbootapp.service.AdaptiveConcurrencyLimiter;
+import com.k8sloverskorea.testspringbootapp.service.FanOutService;
+import com.k8sloverskorea.testspringbootapp.service.LoadGeneratorService;
+import com.k8sloverskorea.testspringbootapp.service.LockContentionProfiler;
+import com.k8sloverskorea.testspringbootapp.service.MemoryPressureService;
+import com.k8sloverskorea.testspringbootapp.service.ScenarioJobService;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.Tracer;
 import io.swagger.v3.oas.annotations.Operation;
@@ -9,21 +18,27 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/test")
@@ -32,6 +47,9 @@ public class TestScenariosController {
     
     private static final Logger logger = LoggerFactory.getLogger(TestScenariosController.class);
     
+    // Iterations between deadline/cancellation checks in the CPU scenario
+    private static final int CPU_BATCH_ITERATIONS = 10_000;
+    
     @Autowired
     private Tracer tracer;
 
@@ -41,19 +59,42 @@ public class TestScenariosController {
     @Value("${server.port:8080}")
     private int serverPort;
 
-    // Reusable HTTP client for internal fan-out calls
-    private final HttpClient httpClient = HttpClient.newBuilder()
-            .connectTimeout(Duration.ofSeconds(5))
-            .build();
-    
-    // Thread lock for testing deadlock scenarios
-    private final ReentrantLock testLock = new ReentrantLock();
+    @Value("${app.scenarios.cpu.max-parallelism:64}")
+    private int maxCpuParallelism;
+
+    @Autowired
+    private VirtualThreadPinningMonitor pinningMonitor;
+
+    @Autowired
+    private ScenarioJobService scenarioJobService;
+
+    @Autowired
+    private LoadGeneratorService loadGeneratorService;
+
+    @Autowired
+    private LockContentionProfiler lockProfiler;
+
+    @Autowired
+    private FanOutService fanOutService;
+
+    @Autowired
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    @Autowired
+    private MemoryPressureService memoryPressureService;
+
+    @Value("${app.scenarios.fan-out.await-grace:5s}")
+    private Duration fanOutAwaitGrace;
+
+    // Monitor for the synchronized variant; blocking inside it pins a virtual thread to its carrier
+    private final Object syncMonitor = new Object();
     
     // Track threads: waiting to acquire lock vs currently holding the lock
     private final Map<String, Thread> waitingThreads = new ConcurrentHashMap<>();
     private final Map<String, Thread> lockedThreads = new ConcurrentHashMap<>();
     
     @GetMapping("/health")
+    @ConcurrencyLimitExempt
     @Operation(summary = "헬스 체크", description = "애플리케이션의 건강 상태와 기본 정보를 반환합니다.")
     public ResponseEntity<Map<String, String>> health() {
         logger.info("Health check endpoint called");
@@ -65,129 +106,146 @@ public class TestScenariosController {
     }
     
     @PostMapping("/block-thread")
+    @ConcurrencyLimitExempt
     @Operation(summary = "스레드 블로킹 및 풀 소진", description = "한 번 호출해도 내부적으로 나머지 요청 스레드까지 동시에 호출하여 톰캣 요청 스레드 풀(기본 5개)을 모두 소진합니다. 각 스레드는 지정한 시간(초) 동안 락으로 블로킹됩니다. 대기/보유 스레드는 /api/test/thread-status에서 확인 가능.")
-    public ResponseEntity<Map<String, String>> blockThread(
+    public ResponseEntity<Map<String, Object>> blockThread(
             @Parameter(description = "블로킹할 시간(초)") @RequestParam(defaultValue = "30") int seconds,
+            @Parameter(description = "락 종류: reentrant(ReentrantLock) 또는 synchronized(가상 스레드 피닝 발생)") @RequestParam(defaultValue = "reentrant") String lockType,
             @Parameter(hidden = true) @RequestParam(defaultValue = "false") boolean internal
     ) {
         Span span = tracer.spanBuilder("block-thread-endpoint").startSpan();
         String threadName = Thread.currentThread().getName();
 
+        boolean useSynchronized = "synchronized".equalsIgnoreCase(lockType);
+
         try {
-            logger.warn("POST /api/test/block-thread - Blocking thread {} for {} seconds (internal={})", threadName, seconds, internal);
+            logger.warn("POST /api/test/block-thread - Blocking thread {} for {} seconds (lockType={}, internal={})", threadName, seconds, lockType, internal);
 
             // Fan-out: only for external (non-internal) trigger, spawn additional requests to exhaust pool
+            FanOutService.FanOut fanOut = null;
+            Duration requestTimeout = Duration.ofSeconds(Math.max(5, seconds + 5));
             if (!internal) {
                 int toSpawn = Math.max(0, maxServerThreads - 1);
-                try {
-                    for (int i = 0; i < toSpawn; i++) {
-                        String url = "http://localhost:" + serverPort + "/api/test/block-thread?seconds=" + seconds + "&internal=true";
-                        HttpRequest req = HttpRequest.newBuilder()
-                                .uri(URI.create(url))
-                                .timeout(Duration.ofSeconds(Math.max(5, seconds + 5)))
-                                .POST(HttpRequest.BodyPublishers.noBody())
-                                .build();
-                        httpClient.sendAsync(req, HttpResponse.BodyHandlers.ofString())
-                                .exceptionally(ex -> {
-                                    logger.error("Internal fan-out request failed: {}", ex.toString());
-                                    return null;
-                                });
-                    }
-                    logger.info("Spawned {} internal requests to exhaust thread pool (max={})", toSpawn, maxServerThreads);
-                } catch (Exception e) {
-                    logger.error("Error during internal fan-out to exhaust threads", e);
-                }
+                URI uri = URI.create("http://localhost:" + serverPort + "/api/test/block-thread?seconds=" + seconds + "&lockType=" + (useSynchronized ? "synchronized" : "reentrant") + "&internal=true");
+                fanOut = fanOutService.start(uri, toSpawn, requestTimeout);
+                logger.info("Started fan-out of {} internal requests to exhaust thread pool (max={})", toSpawn, maxServerThreads);
             }
 
-            // Mark this thread as waiting for the lock (will be enqueued by ReentrantLock)
-            waitingThreads.put(threadName, Thread.currentThread());
+            Map<String, Object> response = new HashMap<>(runBlock(seconds, useSynchronized));
+            response.put("internal", String.valueOf(internal));
+            if (fanOut != null) {
+                // Internal requests time out client-side after requestTimeout; report what finished by then
+                response.put("fanOut", fanOut.await(requestTimeout.plus(fanOutAwaitGrace)));
+            }
 
-            try {
-                // This call will block and enqueue the thread, increasing queueLength/hasQueuedThreads
-                testLock.lock();
+            return ResponseEntity.ok(response);
+        } finally {
+            span.end();
+        }
+    }
+    
+    private Map<String, String> runBlock(int seconds, boolean useSynchronized) {
+        String threadName = Thread.currentThread().getName();
 
-                // Once acquired, move from waiting to locked holder
-                waitingThreads.remove(threadName);
-                lockedThreads.put(threadName, Thread.currentThread());
+        // Mark this thread as waiting for the lock (will be enqueued by ReentrantLock)
+        waitingThreads.put(threadName, Thread.currentThread());
 
+        try {
+            if (useSynchronized) {
+                lockProfiler.runSynchronized(syncMonitor, () -> holdLock(threadName, seconds));
+            } else {
+                // This call will block and enqueue the thread, increasing queueLength/hasQueuedThreads
+                LockContentionProfiler.Acquisition acquisition = lockProfiler.lock(threadName);
                 try {
-                    logger.info("Thread {} acquired lock and will hold it for {} seconds", threadName, seconds);
-                    Thread.sleep(seconds * 1000L);
-                    logger.info("Thread {} releasing lock after {} seconds", threadName, seconds);
-                } catch (InterruptedException e) {
-                    logger.error("Thread {} was interrupted while holding lock", threadName, e);
-                    Thread.currentThread().interrupt();
+                    holdLock(threadName, seconds);
                 } finally {
-                    lockedThreads.remove(threadName);
-                    testLock.unlock();
+                    lockProfiler.unlock(acquisition);
                 }
-            } finally {
-                // Ensure cleanup in any case
-                waitingThreads.remove(threadName);
-                lockedThreads.remove(threadName);
             }
+        } finally {
+            // Ensure cleanup in any case
+            waitingThreads.remove(threadName);
+            lockedThreads.remove(threadName);
+        }
 
-            Map<String, String> response = new HashMap<>();
-            response.put("message", "Thread was blocked for " + seconds + " seconds");
-            response.put("thread", threadName);
-            response.put("duration", seconds + "s");
-            response.put("internal", String.valueOf(internal));
-
-            return ResponseEntity.ok(response);
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "Thread was blocked for " + seconds + " seconds");
+        response.put("thread", threadName);
+        response.put("duration", seconds + "s");
+        response.put("lockType", useSynchronized ? "synchronized" : "reentrant");
+        response.put("lockMode", useSynchronized ? "monitor" : lockProfiler.mode());
+        response.put("executionMode", pinningMonitor.executionMode());
+        return response;
+    }
+    
+    private void holdLock(String threadName, int seconds) {
+        // Once acquired, move from waiting to locked holder
+        waitingThreads.remove(threadName);
+        lockedThreads.put(threadName, Thread.currentThread());
 
+        try {
+            logger.info("Thread {} acquired lock and will hold it for {} seconds", threadName, seconds);
+            Thread.sleep(seconds * 1000L);
+            logger.info("Thread {} releasing lock after {} seconds", threadName, seconds);
+        } catch (InterruptedException e) {
+            logger.error("Thread {} was interrupted while holding lock", threadName, e);
+            Thread.currentThread().interrupt();
         } finally {
-            span.end();
+            lockedThreads.remove(threadName);
         }
     }
     
     @PostMapping("/hang")
+    @ConcurrencyLimitExempt
     @Operation(summary = "스레드 행(Hang)", description = "현재 요청 스레드를 지정한 시간(초) 동안 바쁜 대기 루프로 행 상태로 둡니다.")
     public ResponseEntity<Map<String, String>> hangThread(@Parameter(description = "행 상태로 둘 시간(초)") @RequestParam(defaultValue = "90") int seconds) {
         Span span = tracer.spanBuilder("hang-thread-endpoint").startSpan();
-        String threadName = Thread.currentThread().getName();
         
         try {
-            logger.warn("POST /api/test/hang - Hanging thread {} for {} seconds", threadName, seconds);
-            
-            // This will hang the thread for the specified duration
-            long startTime = System.currentTimeMillis();
-            long endTime = startTime + (seconds * 1000L);
-            
-            logger.info("Thread {} started hanging at {}", threadName, java.time.Instant.now());
-            
-            while (true) {
-                long now = System.currentTimeMillis();
-                long remaining = endTime - now;
-                if (remaining <= 0) {
-                    break;
-                }
-                long sleepMs = Math.min(10000L, remaining);
-                try {
-                    Thread.sleep(sleepMs);
-                    long elapsed = (System.currentTimeMillis() - startTime) / 1000;
-                    logger.debug("Thread {} has been hanging for {} seconds", threadName, elapsed);
-                } catch (InterruptedException e) {
-                    logger.error("Thread {} was interrupted while hanging", threadName, e);
-                    Thread.currentThread().interrupt();
-                    break;
-                }
-            }
-            
-            logger.info("Thread {} finished hanging after {} seconds", threadName, seconds);
-            
-            Map<String, String> response = new HashMap<>();
-            response.put("message", "Thread hung for " + seconds + " seconds");
-            response.put("thread", threadName);
-            response.put("duration", seconds + "s");
-            response.put("completedAt", java.time.Instant.now().toString());
-            
-            return ResponseEntity.ok(response);
-            
+            logger.warn("POST /api/test/hang - Hanging thread {} for {} seconds", Thread.currentThread().getName(), seconds);
+            return ResponseEntity.ok(runHang(seconds));
         } finally {
             span.end();
         }
     }
     
+    private Map<String, String> runHang(int seconds) {
+        String threadName = Thread.currentThread().getName();
+        
+        // This will hang the thread for the specified duration
+        long startTime = System.currentTimeMillis();
+        long endTime = startTime + (seconds * 1000L);
+        
+        logger.info("Thread {} started hanging at {}", threadName, java.time.Instant.now());
+        
+        while (true) {
+            long now = System.currentTimeMillis();
+            long remaining = endTime - now;
+            if (remaining <= 0) {
+                break;
+            }
+            long sleepMs = Math.min(10000L, remaining);
+            try {
+                Thread.sleep(sleepMs);
+                long elapsed = (System.currentTimeMillis() - startTime) / 1000;
+                logger.debug("Thread {} has been hanging for {} seconds", threadName, elapsed);
+            } catch (InterruptedException e) {
+                logger.error("Thread {} was interrupted while hanging", threadName, e);
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        
+        logger.info("Thread {} finished hanging after {} seconds", threadName, seconds);
+        
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "Thread hung for " + seconds + " seconds");
+        response.put("thread", threadName);
+        response.put("duration", seconds + "s");
+        response.put("completedAt", java.time.Instant.now().toString());
+        return response;
+    }
+    
     @GetMapping("/thread-status")
     @Operation(summary = "스레드 상태 조회", description = "현재 애플리케이션의 전체/락 대기/락 보유 스레드 수와 락 상태를 반환합니다.")
     public ResponseEntity<Map<String, Object>> getThreadStatus() {
@@ -199,57 +257,345 @@ public class TestScenariosController {
         response.put("waitingThreadNames", waitingThreads.keySet());
         response.put("lockedThreads", lockedThreads.size());
         response.put("lockedThreadNames", lockedThreads.keySet());
-        response.put("lockHeld", testLock.isLocked());
-        response.put("hasQueuedThreads", testLock.hasQueuedThreads());
-        response.put("queueLength", testLock.getQueueLength());
+        int queueLength = lockProfiler.currentQueueLength();
+        response.put("lockHeld", lockProfiler.isLocked());
+        response.put("hasQueuedThreads", queueLength > 0);
+        response.put("queueLength", queueLength);
+        response.put("lockMode", lockProfiler.mode());
+        response.put("executionMode", pinningMonitor.executionMode());
+        response.put("virtualThreadPinnedCount", pinningMonitor.pinnedCount());
         response.put("timestamp", java.time.Instant.now().toString());
 
         return ResponseEntity.ok(response);
     }
     
+    @GetMapping("/lock-stats")
+    @Operation(summary = "락 경합 통계", description = "block-thread 시나리오 락의 대기/보유 시간 분포(p50/p95/p99), 윈도우 내 획득 횟수와 초당 획득률, 최대 대기열 길이를 반환합니다.")
+    public ResponseEntity<Map<String, Object>> getLockStats() {
+        Span span = tracer.spanBuilder("lock-stats-endpoint").startSpan();
+        try {
+            logger.info("GET /api/test/lock-stats - Returning lock contention summary");
+            return ResponseEntity.ok(lockProfiler.summary());
+        } finally {
+            span.end();
+        }
+    }
+    
+    @GetMapping("/limiter-stats")
+    @ConcurrencyLimitExempt
+    @Operation(summary = "동시성 제한 상태", description = "API 적응형 동시성 제한의 현재 한도, 처리 중 요청 수, 그룹(entities/scenarios)별 허용 한도, 기준 지연 시간, 거부(503) 횟수를 반환합니다.")
+    public ResponseEntity<Map<String, Object>> getLimiterStats() {
+        Span span = tracer.spanBuilder("limiter-stats-endpoint").startSpan();
+        try {
+            logger.info("GET /api/test/limiter-stats - Returning concurrency limiter status");
+            return ResponseEntity.ok(concurrencyLimiter.status());
+        } finally {
+            span.end();
+        }
+    }
+    
+    @PostMapping("/lock-mode")
+    @Operation(summary = "락 모드 변경", description = "block-thread 시나리오의 락을 unfair(기본), fair, striped(stripes 개의 락에 스레드 분산) 중 하나로 교체합니다. 이미 대기/보유 중인 스레드는 기존 락에서 마무리됩니다.")
+    public ResponseEntity<Map<String, Object>> setLockMode(
+            @Parameter(description = "락 모드: unfair, fair, striped") @RequestParam String mode,
+            @Parameter(description = "striped 모드의 락 개수") @RequestParam(defaultValue = "4") int stripes) {
+        Span span = tracer.spanBuilder("lock-mode-endpoint").startSpan();
+        try {
+            logger.warn("POST /api/test/lock-mode - Switching scenario lock to mode={} (stripes={})", mode, stripes);
+            try {
+                lockProfiler.configure(mode, stripes);
+            } catch (IllegalArgumentException e) {
+                Map<String, Object> error = new HashMap<>();
+                error.put("error", e.getMessage());
+                return ResponseEntity.badRequest().body(error);
+            }
+            return ResponseEntity.ok(lockProfiler.summary());
+        } finally {
+            span.end();
+        }
+    }
+    
     @PostMapping("/cpu-intensive")
-    @Operation(summary = "CPU 집약 작업", description = "지정한 시간(초) 동안 난수 계산으로 CPU 부하를 발생시킵니다.")
-    public ResponseEntity<Map<String, String>> cpuIntensiveTask(@Parameter(description = "작업을 수행할 시간(초)") @RequestParam(defaultValue = "10") int seconds) {
+    @Operation(summary = "CPU 집약 작업", description = "지정한 시간(초) 동안 난수 계산으로 CPU 부하를 발생시킵니다. parallelism으로 여러 코어에 병렬 부하를 줄 수 있으며(0 = 사용 가능한 전체 코어), 코어당 초당 반복 횟수를 함께 반환합니다.")
+    public ResponseEntity<Map<String, Object>> cpuIntensiveTask(
+            @Parameter(description = "작업을 수행할 시간(초)") @RequestParam(defaultValue = "10") int seconds,
+            @Parameter(description = "병렬 워커 수 (1 = 요청 스레드에서 단일 실행, 0 = 사용 가능한 전체 코어)") @RequestParam(defaultValue = "1") int parallelism) {
         Span span = tracer.spanBuilder("cpu-intensive-endpoint").startSpan();
-        String threadName = Thread.currentThread().getName();
         
         try {
-            logger.warn("POST /api/test/cpu-intensive - Starting CPU intensive task on thread {} for {} seconds", threadName, seconds);
-            
-            long startTime = System.currentTimeMillis();
-            long endTime = startTime + (seconds * 1000L);
-            long counter = 0;
-            double resultAccumulator = 0.0d;
-            
-            // CPU intensive task
-            while (System.currentTimeMillis() < endTime) {
-                // Perform some calculations to consume CPU and use the result
-                resultAccumulator += Math.sqrt(Math.random() * 1_000_000);
-                counter++;
-                
-                // Log every million iterations
-                if (counter % 1_000_000 == 0) {
-                    long elapsed = (System.currentTimeMillis() - startTime) / 1000;
-                    logger.debug("CPU intensive task on thread {} - {} iterations, {} seconds elapsed", 
-                               threadName, counter, elapsed);
+            logger.warn("POST /api/test/cpu-intensive - Starting CPU intensive task on thread {} for {} seconds (parallelism={})", Thread.currentThread().getName(), seconds, parallelism);
+            return ResponseEntity.ok(runCpuIntensive(seconds, parallelism));
+        } finally {
+            span.end();
+        }
+    }
+    
+    private record CpuWorkerResult(String thread, long iterations, double checksum, long elapsedNanos) {
+    }
+    
+    private Map<String, Object> runCpuIntensive(int seconds, int parallelism) {
+        String threadName = Thread.currentThread().getName();
+        int availableProcessors = Runtime.getRuntime().availableProcessors();
+        int workers = parallelism <= 0 ? availableProcessors : Math.min(parallelism, maxCpuParallelism);
+        
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + seconds * 1_000_000_000L;
+        AtomicBoolean cancelled = new AtomicBoolean();
+        SplittableRandom rootRandom = new SplittableRandom();
+        List<CpuWorkerResult> results = new ArrayList<>(workers);
+        
+        if (workers == 1) {
+            // Single worker runs on the calling thread, as before
+            results.add(burnCpu(deadlineNanos, rootRandom, cancelled));
+        } else {
+            // Dedicated pool so the common pool (parallel streams, CompletableFuture defaults) is untouched
+            ForkJoinPool pool = new ForkJoinPool(workers);
+            try {
+                List<Callable<CpuWorkerResult>> tasks = new ArrayList<>(workers);
+                for (int i = 0; i < workers; i++) {
+                    SplittableRandom random = rootRandom.split();
+                    tasks.add(() -> burnCpu(deadlineNanos, random, cancelled));
+                }
+                for (Future<CpuWorkerResult> future : pool.invokeAll(tasks)) {
+                    results.add(future.get());
                 }
+            } catch (InterruptedException e) {
+                logger.warn("CPU intensive task on thread {} interrupted", threadName);
+                cancelled.set(true);
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("CPU worker failed", e.getCause());
+            } finally {
+                cancelled.set(true);
+                pool.shutdown();
             }
-            
-            long totalTime = (System.currentTimeMillis() - startTime) / 1000;
-            logger.info("CPU intensive task completed on thread {} - {} iterations in {} seconds", 
-                       threadName, counter, totalTime);
-            
-            Map<String, String> response = new HashMap<>();
-            response.put("message", "CPU intensive task completed");
-            response.put("thread", threadName);
-            response.put("iterations", String.valueOf(counter));
-            response.put("duration", totalTime + "s");
-            response.put("resultChecksum", Long.toString((long) resultAccumulator));
-            
-            return ResponseEntity.ok(response);
-            
+        }
+        
+        long elapsedNanos = System.nanoTime() - startNanos;
+        double elapsedSeconds = elapsedNanos / 1_000_000_000.0d;
+        long counter = 0;
+        double resultAccumulator = 0.0d;
+        List<Map<String, Object>> perWorker = new ArrayList<>(results.size());
+        for (CpuWorkerResult result : results) {
+            counter += result.iterations();
+            resultAccumulator += result.checksum();
+            Map<String, Object> worker = new HashMap<>();
+            worker.put("thread", result.thread());
+            worker.put("iterations", result.iterations());
+            worker.put("iterationsPerSecond", Math.round(result.iterations() / (result.elapsedNanos() / 1_000_000_000.0d)));
+            perWorker.add(worker);
+        }
+        long iterationsPerSecond = Math.round(counter / elapsedSeconds);
+        
+        logger.info("CPU intensive task completed on thread {} - {} iterations in {} seconds across {} workers ({} iterations/s)", 
+                   threadName, counter, String.format("%.1f", elapsedSeconds), workers, iterationsPerSecond);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "CPU intensive task completed");
+        response.put("thread", threadName);
+        response.put("iterations", String.valueOf(counter));
+        response.put("duration", (elapsedNanos / 1_000_000_000L) + "s");
+        response.put("resultChecksum", Long.toString((long) resultAccumulator));
+        response.put("parallelism", workers);
+        response.put("availableProcessors", availableProcessors);
+        response.put("iterationsPerSecond", iterationsPerSecond);
+        response.put("iterationsPerSecondPerCore", Math.round((double) iterationsPerSecond / Math.min(workers, availableProcessors)));
+        response.put("workers", perWorker);
+        return response;
+    }
+    
+    /**
+     * Spins until the deadline using a per-worker {@link SplittableRandom} (no shared generator),
+     * checking the clock and cancellation only once per batch of iterations.
+     */
+    private static CpuWorkerResult burnCpu(long deadlineNanos, SplittableRandom random, AtomicBoolean cancelled) {
+        long start = System.nanoTime();
+        long iterations = 0;
+        double accumulator = 0.0d;
+        while (System.nanoTime() < deadlineNanos && !cancelled.get() && !Thread.currentThread().isInterrupted()) {
+            for (int i = 0; i < CPU_BATCH_ITERATIONS; i++) {
+                accumulator += Math.sqrt(random.nextDouble() * 1_000_000);
+            }
+            iterations += CPU_BATCH_ITERATIONS;
+        }
+        return new CpuWorkerResult(Thread.currentThread().getName(), iterations, accumulator, System.nanoTime() - start);
+    }
+    
+    @PostMapping("/async/block-thread")
+    @Operation(summary = "스레드 블로킹 (비동기)", description = "락 블로킹 작업을 전용 시나리오 실행기에서 수행하고 즉시 작업 ID를 반환합니다(202). 내부 팬아웃은 하지 않습니다. 결과는 /api/test/jobs/{id}로 조회합니다.")
+    public ResponseEntity<Map<String, Object>> blockThreadAsync(
+            @Parameter(description = "블로킹할 시간(초)") @RequestParam(defaultValue = "30") int seconds,
+            @Parameter(description = "락 종류: reentrant 또는 synchronized") @RequestParam(defaultValue = "reentrant") String lockType) {
+        logger.warn("POST /api/test/async/block-thread - Submitting block job for {} seconds (lockType={})", seconds, lockType);
+        boolean useSynchronized = "synchronized".equalsIgnoreCase(lockType);
+        return submitJob("block-thread", Map.of("seconds", seconds, "lockType", lockType),
+                () -> runBlock(seconds, useSynchronized));
+    }
+    
+    @PostMapping("/async/hang")
+    @Operation(summary = "스레드 행 (비동기)", description = "행 작업을 전용 시나리오 실행기에서 수행하고 즉시 작업 ID를 반환합니다(202). 요청 스레드를 점유하지 않습니다.")
+    public ResponseEntity<Map<String, Object>> hangThreadAsync(@Parameter(description = "행 상태로 둘 시간(초)") @RequestParam(defaultValue = "90") int seconds) {
+        logger.warn("POST /api/test/async/hang - Submitting hang job for {} seconds", seconds);
+        return submitJob("hang", Map.of("seconds", seconds), () -> runHang(seconds));
+    }
+    
+    @PostMapping("/async/cpu-intensive")
+    @Operation(summary = "CPU 집약 작업 (비동기)", description = "CPU 부하 작업을 전용 시나리오 실행기에서 수행하고 즉시 작업 ID를 반환합니다(202).")
+    public ResponseEntity<Map<String, Object>> cpuIntensiveTaskAsync(
+            @Parameter(description = "작업을 수행할 시간(초)") @RequestParam(defaultValue = "10") int seconds,
+            @Parameter(description = "병렬 워커 수 (0 = 사용 가능한 전체 코어)") @RequestParam(defaultValue = "1") int parallelism) {
+        logger.warn("POST /api/test/async/cpu-intensive - Submitting CPU job for {} seconds (parallelism={})", seconds, parallelism);
+        return submitJob("cpu-intensive", Map.of("seconds", seconds, "parallelism", parallelism), () -> runCpuIntensive(seconds, parallelism));
+    }
+    
+    @PostMapping("/load")
+    @Operation(summary = "부하 생성", description = "이 애플리케이션의 엔드포인트(path)에 대해 오픈 루프(고정 도착률) 또는 클로즈드 루프 부하를 발생시키고 처리량과 p50/p99/p999 지연 시간을 반환합니다. 오픈 루프는 의도한 전송 시각 기준으로 지연을 측정해 coordinated omission을 피합니다. 요청 스레드를 점유하므로 긴 실행은 /api/test/async/load 사용을 권장합니다.")
+    public ResponseEntity<Map<String, Object>> generateLoad(
+            @Parameter(description = "대상 경로 (예: /api/entities/1)") @RequestParam String path,
+            @Parameter(description = "HTTP 메서드") @RequestParam(defaultValue = "GET") String method,
+            @Parameter(description = "모드: open(고정 도착률) 또는 closed(동시 워커)") @RequestParam(defaultValue = "open") String mode,
+            @Parameter(description = "최대 동시 요청 수(open) 또는 워커 수(closed)") @RequestParam(defaultValue = "10") int concurrency,
+            @Parameter(description = "실행 시간(초)") @RequestParam(defaultValue = "10") int seconds,
+            @Parameter(description = "초당 요청 수 (closed 모드에서 0이면 속도 제한 없음)") @RequestParam(defaultValue = "100") int rate,
+            @RequestBody(required = false) String body) {
+        Span span = tracer.spanBuilder("load-generator-endpoint").startSpan();
+        try {
+            logger.warn("POST /api/test/load - {} {} mode={} concurrency={} rate={}/s for {}s", method, path, mode, concurrency, rate, seconds);
+            return ResponseEntity.ok(loadGeneratorService.run(
+                    new LoadGeneratorService.LoadSpec(path, method, body, mode, concurrency, seconds, rate)));
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
         } finally {
             span.end();
         }
     }
-}
\ No newline at end of file
+    
+    @PostMapping("/async/load")
+    @Operation(summary = "부하 생성 (비동기)", description = "/api/test/load와 동일한 부하 생성을 시나리오 실행기에서 수행하고 즉시 작업 ID를 반환합니다(202).")
+    public ResponseEntity<Map<String, Object>> generateLoadAsync(
+            @Parameter(description = "대상 경로 (예: /api/entities/1)") @RequestParam String path,
+            @Parameter(description = "HTTP 메서드") @RequestParam(defaultValue = "GET") String method,
+            @Parameter(description = "모드: open(고정 도착률) 또는 closed(동시 워커)") @RequestParam(defaultValue = "open") String mode,
+            @Parameter(description = "최대 동시 요청 수(open) 또는 워커 수(closed)") @RequestParam(defaultValue = "10") int concurrency,
+            @Parameter(description = "실행 시간(초)") @RequestParam(defaultValue = "10") int seconds,
+            @Parameter(description = "초당 요청 수 (closed 모드에서 0이면 속도 제한 없음)") @RequestParam(defaultValue = "100") int rate,
+            @RequestBody(required = false) String body) {
+        logger.warn("POST /api/test/async/load - Submitting load job {} {} mode={}", method, path, mode);
+        LoadGeneratorService.LoadSpec spec = new LoadGeneratorService.LoadSpec(path, method, body, mode, concurrency, seconds, rate);
+        try {
+            loadGeneratorService.validate(spec);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("path", path);
+        parameters.put("method", method);
+        parameters.put("mode", mode);
+        parameters.put("concurrency", concurrency);
+        parameters.put("seconds", seconds);
+        parameters.put("rate", rate);
+        return submitJob("load", parameters, () -> loadGeneratorService.run(spec));
+    }
+    
+    @PostMapping("/async/memory/retain")
+    @Operation(summary = "힙 점유 (비동기)", description = "지정한 크기(MB)의 힙을 할당해 seconds 동안 유지합니다. 최대 힙의 app.scenarios.memory.max-heap-fraction을 넘지 않도록 조정되며, 관찰한 GC 횟수/시간과 힙 점유율을 결과로 반환합니다. /api/test/jobs/{id} DELETE로 취소하면 즉시 해제합니다.")
+    public ResponseEntity<Map<String, Object>> retainHeapAsync(
+            @Parameter(description = "점유할 힙 크기(MB)") @RequestParam(defaultValue = "128") long megabytes,
+            @Parameter(description = "유지 시간(초)") @RequestParam(defaultValue = "60") int seconds,
+            @Parameter(description = "할당 단위(KB), 작을수록 객체 수가 많아 GC 마킹 부담이 커짐") @RequestParam(defaultValue = "1024") int chunkKb) {
+        logger.warn("POST /api/test/async/memory/retain - Submitting retain-heap job {} MB for {} seconds (chunk {} KB)", megabytes, seconds, chunkKb);
+        try {
+            memoryPressureService.validate(megabytes, seconds, chunkKb);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        }
+        return submitJob("memory-retain", Map.of("megabytes", megabytes, "seconds", seconds, "chunkKb", chunkKb),
+                () -> memoryPressureService.retainHeap(megabytes, seconds, chunkKb));
+    }
+    
+    @PostMapping("/async/memory/churn")
+    @Operation(summary = "GC 부하 생성 (비동기)", description = "짧게 사라지는 객체를 목표 할당률(MB/s)로 seconds 동안 생성합니다. 달성한 할당률, 수집기별 GC 횟수/시간, GC 일시정지 비율, 힙 점유율을 결과로 반환합니다. 작업 취소로 중단할 수 있습니다.")
+    public ResponseEntity<Map<String, Object>> churnAsync(
+            @Parameter(description = "목표 할당률(MB/s)") @RequestParam(defaultValue = "200") int mbPerSecond,
+            @Parameter(description = "실행 시간(초)") @RequestParam(defaultValue = "60") int seconds,
+            @Parameter(description = "객체 하나의 크기(바이트)") @RequestParam(defaultValue = "1024") int objectBytes) {
+        logger.warn("POST /api/test/async/memory/churn - Submitting churn job {} MB/s for {} seconds ({}-byte objects)", mbPerSecond, seconds, objectBytes);
+        try {
+            memoryPressureService.validateChurn(mbPerSecond, seconds, objectBytes);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        }
+        return submitJob("memory-churn", Map.of("mbPerSecond", mbPerSecond, "seconds", seconds, "objectBytes", objectBytes),
+                () -> memoryPressureService.churn(mbPerSecond, seconds, objectBytes));
+    }
+    
+    @PostMapping("/async/memory/direct")
+    @Operation(summary = "다이렉트 메모리 점유 (비동기)", description = "힙 밖의 direct ByteBuffer를 지정한 크기(MB)만큼 할당해 seconds 동안 유지합니다(최대 app.scenarios.memory.max-direct). 컨테이너 메모리에는 잡히지만 힙에는 보이지 않는 사용량을 재현하며, direct 메모리 사용량과 GC 관찰 결과를 반환합니다.")
+    public ResponseEntity<Map<String, Object>> retainDirectAsync(
+            @Parameter(description = "점유할 다이렉트 메모리 크기(MB)") @RequestParam(defaultValue = "64") long megabytes,
+            @Parameter(description = "유지 시간(초)") @RequestParam(defaultValue = "60") int seconds,
+            @Parameter(description = "버퍼 하나의 크기(KB)") @RequestParam(defaultValue = "1024") int chunkKb) {
+        logger.warn("POST /api/test/async/memory/direct - Submitting direct memory job {} MB for {} seconds", megabytes, seconds);
+        try {
+            memoryPressureService.validate(megabytes, seconds, chunkKb);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        }
+        return submitJob("memory-direct", Map.of("megabytes", megabytes, "seconds", seconds, "chunkKb", chunkKb),
+                () -> memoryPressureService.retainDirect(megabytes, seconds, chunkKb));
+    }
+    
+    private static ResponseEntity<Map<String, Object>> badRequest(IllegalArgumentException e) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("error", e.getMessage());
+        return ResponseEntity.badRequest().body(response);
+    }
+    
+    @GetMapping("/jobs")
+    @Operation(summary = "비동기 작업 목록", description = "최근 비동기 시나리오 작업 목록과 시나리오 실행기 상태를 반환합니다.")
+    public ResponseEntity<Map<String, Object>> getJobs() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("executor", scenarioJobService.executorStatus());
+        response.put("jobs", scenarioJobService.getJobs());
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/jobs/{id}")
+    @Operation(summary = "비동기 작업 조회", description = "작업 ID로 비동기 시나리오 작업의 상태와 결과를 조회합니다.")
+    public ResponseEntity<ScenarioJob> getJob(@Parameter(description = "작업 ID") @PathVariable String id) {
+        return scenarioJobService.getJob(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @DeleteMapping("/jobs/{id}")
+    @Operation(summary = "비동기 작업 취소", description = "실행 중이거나 대기 중인 비동기 시나리오 작업을 인터럽트로 취소합니다.")
+    public ResponseEntity<ScenarioJob> cancelJob(@Parameter(description = "작업 ID") @PathVariable String id) {
+        logger.warn("DELETE /api/test/jobs/{} - Cancelling job", id);
+        return scenarioJobService.cancel(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    private ResponseEntity<Map<String, Object>> submitJob(String type, Map<String, Object> parameters, Supplier<Map<String, ?>> work) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            ScenarioJob job = scenarioJobService.submit(type, parameters, work);
+            String statusUrl = "/api/test/jobs/" + job.getId();
+            response.put("jobId", job.getId());
+            response.put("status", job.getStatus());
+            response.put("statusUrl", statusUrl);
+            return ResponseEntity.accepted().location(URI.create(statusUrl)).body(response);
+        } catch (RejectedExecutionException e) {
+            response.put("error", "Scenario executor is saturated, retry later");
+            response.put("executor", scenarioJobService.executorStatus());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .body(response);
+        }
+    }
+}
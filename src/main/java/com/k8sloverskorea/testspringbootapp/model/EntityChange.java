@@ -0,0 +1,14 @@
+package com.k8sloverskorea.testspringbootapp.model;
+
+import java.time.Instant;
+
+/**
+ * One committed mutation in the entity change feed. {@code entity} holds the state after the change
+ * and is null for deletes.
+ */
+public record EntityChange(long sequence, Type type, Long id, TestEntity entity, Instant timestamp) {
+    
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+}
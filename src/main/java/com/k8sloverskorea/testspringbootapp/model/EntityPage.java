@@ -0,0 +1,10 @@
+package com.k8sloverskorea.testspringbootapp.model;
+
+import java.util.List;
+
+/**
+ * One keyset page of entities. {@code nextCursor} is the id to pass as {@code afterId}
+ * for the following page, or {@code null} when there are no more rows.
+ */
+public record EntityPage(List<TestEntity> items, int size, Long nextCursor, boolean hasMore) {
+}
@@ -0,0 +1,9 @@
+package com.k8sloverskorea.testspringbootapp.model;
+
+import java.util.List;
+
+/**
+ * One page of name search results plus the total number of matches across all pages.
+ */
+public record EntitySearchResult(List<TestEntity> items, int total) {
+}
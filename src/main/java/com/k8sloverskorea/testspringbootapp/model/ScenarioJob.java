@@ -0,0 +1,131 @@
+package com.k8sloverskorea.testspringbootapp.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Status of a test scenario submitted for asynchronous execution; polled via /api/test/jobs/{id}.
+ * <p>
+ * Status changes are compare-and-set transitions (QUEUED to RUNNING or CANCELLED, RUNNING to
+ * COMPLETED, FAILED or CANCELLED), so when the worker and a cancel request race, exactly one of
+ * them wins and the other leaves the job untouched.
+ */
+public class ScenarioJob {
+    
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED }
+    
+    private final String id;
+    private final String type;
+    private final Map<String, Object> parameters;
+    private final Instant submittedAt = Instant.now();
+    private final AtomicReference<Status> status = new AtomicReference<>(Status.QUEUED);
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile Map<String, ?> result;
+    private volatile String error;
+    private volatile Future<?> future;
+    
+    public ScenarioJob(String id, String type, Map<String, Object> parameters) {
+        this.id = id;
+        this.type = type;
+        this.parameters = parameters;
+    }
+    
+    /** @return {@code false} if the job was cancelled before it started */
+    public boolean markRunning() {
+        if (!status.compareAndSet(Status.QUEUED, Status.RUNNING)) {
+            return false;
+        }
+        this.startedAt = Instant.now();
+        return true;
+    }
+    
+    /** @return {@code false} if the job had already finished, e.g. was cancelled while running */
+    public boolean markCompleted() {
+        if (!status.compareAndSet(Status.RUNNING, Status.COMPLETED)) {
+            return false;
+        }
+        this.finishedAt = Instant.now();
+        return true;
+    }
+    
+    /** @return {@code false} if the job had already finished, e.g. was cancelled while running */
+    public boolean markFailed(String error) {
+        if (!status.compareAndSet(Status.RUNNING, Status.FAILED)) {
+            return false;
+        }
+        this.error = error;
+        this.finishedAt = Instant.now();
+        return true;
+    }
+    
+    /** @return {@code false} if the job had already completed, failed or been cancelled */
+    public boolean markCancelled() {
+        if (!status.compareAndSet(Status.QUEUED, Status.CANCELLED)
+                && !status.compareAndSet(Status.RUNNING, Status.CANCELLED)) {
+            return false;
+        }
+        this.finishedAt = Instant.now();
+        return true;
+    }
+    
+    public boolean isDone() {
+        Status current = status.get();
+        return current == Status.COMPLETED || current == Status.FAILED || current == Status.CANCELLED;
+    }
+    
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+    
+    public String getType() {
+        return type;
+    }
+    
+    public Map<String, Object> getParameters() {
+        return parameters;
+    }
+    
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+    
+    public Status getStatus() {
+        return status.get();
+    }
+    
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+    
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+    
+    public Map<String, ?> getResult() {
+        return result;
+    }
+    
+    // Kept whatever the final status is: a cancelled run still reports what it did before stopping
+    public void setResult(Map<String, ?> result) {
+        this.result = result;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    @JsonIgnore
+    public Future<?> getFuture() {
+        return future;
+    }
+    
+    public void setFuture(Future<?> future) {
+        this.future = future;
+    }
+}
@@ -1,5 +1,6 @@
 package com.k8sloverskorea.testspringbootapp.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
@@ -7,8 +8,10 @@ import java.time.LocalDateTime;
 @Table(name = "test_entities")
 public class TestEntity {
     
+    // Pooled sequence (rather than IDENTITY) so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "test_entities_seq")
+    @SequenceGenerator(name = "test_entities_seq", sequenceName = "test_entities_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -23,6 +26,11 @@ public class TestEntity {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Optimistic locking; also the source of the ETag. Clients send it back via If-Match, not the body
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+    
     public TestEntity() {
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
@@ -39,6 +47,16 @@ public class TestEntity {
         this.updatedAt = LocalDateTime.now();
     }
     
+    // Detached copy for caches and event payloads, so later changes to a managed instance never leak
+    public TestEntity copy() {
+        TestEntity copy = new TestEntity(name, description);
+        copy.id = id;
+        copy.createdAt = createdAt;
+        copy.updatedAt = updatedAt;
+        copy.version = version;
+        return copy;
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
@@ -80,6 +98,14 @@ public class TestEntity {
         this.updatedAt = updatedAt;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     @Override
     public String toString() {
         return "TestEntity{" +
@@ -88,6 +114,7 @@ public class TestEntity {
                 ", description='" + description + '\'' +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
+                ", version=" + version +
                 '}';
     }
 }
\ No newline at end of file
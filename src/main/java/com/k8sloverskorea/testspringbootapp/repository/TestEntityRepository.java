@@ -1,11 +1,20 @@
 package com.k8sloverskorea.testspringbootapp.repository;
 
 import com.k8sloverskorea.testspringbootapp.model.TestEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TestEntityRepository extends JpaRepository<TestEntity, Long> {
@@ -14,4 +23,28 @@ public interface TestEntityRepository extends JpaRepository<TestEntity, Long> {
     
     @Query("SELECT t FROM TestEntity t WHERE t.description IS NOT NULL")
     List<TestEntity> findAllWithDescription();
-}
\ No newline at end of file
+    
+    // Keyset pagination: seek past the last seen id instead of using OFFSET
+    List<TestEntity> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+    
+    // Cursor-backed stream; must be consumed inside a transaction and closed afterwards
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM TestEntity t ORDER BY t.id")
+    Stream<TestEntity> streamAllOrderById();
+    
+    // Which of the given ids exist, so batch operations only report rows they actually touched
+    @Query("SELECT t.id FROM TestEntity t WHERE t.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+    
+    // Single bulk DELETE ... WHERE id IN (...) instead of one load + delete per row
+    @Modifying
+    @Query("DELETE FROM TestEntity t WHERE t.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Lightweight version probe used to revalidate cached entities
+    @Query("SELECT t.version FROM TestEntity t WHERE t.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+}
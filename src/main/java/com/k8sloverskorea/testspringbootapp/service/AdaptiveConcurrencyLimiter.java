@@ -0,0 +1,247 @@
+package com.k8sloverskorea.testspringbootapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Latency-driven concurrency limit shared by the API endpoint groups, in the style of a gradient limiter.
+ * <p>
+ * Each group keeps a slow moving average of its own latency as its "normal" latency, so slow groups
+ * (scenarios that sleep on purpose) and fast groups (CRUD) can share one limit. Once per
+ * {@code app.limiter.window} the average ratio of observed to normal latency is turned into a gradient:
+ * at or below {@code tolerance} the limit grows by one (only while it is actually being used), above it
+ * the limit shrinks in proportion, at most by half per window. Priority comes from each group's
+ * {@code share}. A group is admitted only while total in-flight work is below {@code share * limit},
+ * so lower-priority groups are shed first and the last slots are kept for higher ones. Actuator
+ * endpoints are outside the limiter and keep whatever workers are left. Unless set explicitly,
+ * {@code max-limit} is {@code server.tomcat.threads.max - 1}, so one worker always stays free for them.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+
+    public static final String ENTITIES = "entities";
+    public static final String SCENARIOS = "scenarios";
+
+    // Weight of one sample in a group's normal latency; small so a sustained overload is not learned as normal
+    private static final double BASELINE_ALPHA = 0.01;
+    private static final double SMOOTHING = 0.2;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.limiter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.limiter.initial-limit:4}")
+    private int initialLimit;
+
+    @Value("${app.limiter.min-limit:1}")
+    private int minLimit;
+
+    // 0 = derive from the Tomcat pool size
+    @Value("${app.limiter.max-limit:0}")
+    private int maxLimit;
+
+    @Value("${server.tomcat.threads.max:200}")
+    private int maxServerThreads;
+
+    @Value("${app.limiter.tolerance:2.0}")
+    private double tolerance;
+
+    @Value("${app.limiter.window:1s}")
+    private Duration window;
+
+    @Value("${app.limiter.groups.entities.share:1.0}")
+    private double entitiesShare;
+
+    @Value("${app.limiter.groups.scenarios.share:0.5}")
+    private double scenariosShare;
+
+    private final Map<String, Group> groups = new LinkedHashMap<>();
+
+    // Guarded by this
+    private double limit;
+    private int inFlight;
+    private double ratioSum;
+    private int samples;
+    private long windowStart;
+
+    private final class Group {
+        final String name;
+        final double share;
+        final Counter shed;
+        int inFlight;
+        double baselineNanos;
+
+        Group(String name, double share) {
+            this.name = name;
+            this.share = share;
+            this.shed = Counter.builder("api.concurrency.shed")
+                    .description("Requests rejected with 503 by the adaptive concurrency limiter")
+                    .tag("group", name)
+                    .register(meterRegistry);
+            Gauge.builder("api.concurrency.in.flight", this, group -> group.inFlightCount())
+                    .description("Requests of the group currently holding a concurrency permit")
+                    .tag("group", name)
+                    .register(meterRegistry);
+            Gauge.builder("api.concurrency.group.limit", this, group -> group.admissionLimit())
+                    .description("Total in-flight requests up to which the group is still admitted")
+                    .tag("group", name)
+                    .register(meterRegistry);
+        }
+
+        int inFlightCount() {
+            synchronized (AdaptiveConcurrencyLimiter.this) {
+                return inFlight;
+            }
+        }
+
+        int admissionLimit() {
+            synchronized (AdaptiveConcurrencyLimiter.this) {
+                return Math.max(1, (int) Math.floor(limit * share));
+            }
+        }
+    }
+
+    /** A slot held by one request; release it exactly once. */
+    public final class Permit {
+        private final Group group;
+        private final long startNanos = System.nanoTime();
+
+        private Permit(Group group) {
+            this.group = group;
+        }
+
+        /** Releases the slot and feeds the request's latency into the limit. */
+        public void release() {
+            onRelease(this, System.nanoTime() - startNanos);
+        }
+
+        /**
+         * Releases the slot without a latency sample, for requests that went async (streams) and no
+         * longer hold a worker thread.
+         */
+        public void releaseWithoutSample() {
+            onRelease(this, -1);
+        }
+
+        public String group() {
+            return group.name;
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        if (maxLimit <= 0) {
+            maxLimit = Math.max(minLimit, maxServerThreads - 1);
+        }
+        limit = Math.max(minLimit, Math.min(initialLimit, maxLimit));
+        windowStart = System.nanoTime();
+        groups.put(ENTITIES, new Group(ENTITIES, entitiesShare));
+        groups.put(SCENARIOS, new Group(SCENARIOS, scenariosShare));
+        Gauge.builder("api.concurrency.limit", this, AdaptiveConcurrencyLimiter::currentLimit)
+                .description("Current adaptive concurrency limit for API requests")
+                .register(meterRegistry);
+        logger.info("Adaptive concurrency limiter {} - limit {} (min {}, max {}), shares {}",
+                enabled ? "enabled" : "disabled", limit, minLimit, maxLimit,
+                Map.of(ENTITIES, entitiesShare, SCENARIOS, scenariosShare));
+    }
+
+    /**
+     * Takes a slot for a request of {@code groupName}.
+     *
+     * @return empty when the request should be shed
+     */
+    public synchronized Optional<Permit> tryAcquire(String groupName) {
+        Group group = groups.get(groupName);
+        if (group == null) {
+            throw new IllegalArgumentException("Unknown concurrency group: " + groupName);
+        }
+        if (enabled && inFlight >= Math.max(1, (int) Math.floor(limit * group.share))) {
+            group.shed.increment();
+            return Optional.empty();
+        }
+        inFlight++;
+        group.inFlight++;
+        return Optional.of(new Permit(group));
+    }
+
+    private synchronized void onRelease(Permit permit, long latencyNanos) {
+        Group group = permit.group;
+        // Sampled before the decrement: growth only makes sense if the current limit was being used
+        int observedInFlight = inFlight;
+        inFlight--;
+        group.inFlight--;
+        if (latencyNanos < 0) {
+            return;
+        }
+        if (group.baselineNanos == 0) {
+            group.baselineNanos = latencyNanos;
+        }
+        ratioSum += latencyNanos / group.baselineNanos;
+        samples++;
+        group.baselineNanos += BASELINE_ALPHA * (latencyNanos - group.baselineNanos);
+
+        long now = System.nanoTime();
+        if (now - windowStart < window.toNanos()) {
+            return;
+        }
+        double ratio = ratioSum / samples;
+        double previous = limit;
+        double target;
+        if (ratio <= tolerance) {
+            target = observedInFlight >= limit / 2 ? limit + 1 : limit;
+        } else {
+            target = limit * Math.max(0.5, tolerance / ratio);
+        }
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + target * SMOOTHING));
+        if ((int) limit != (int) previous) {
+            logger.info("Concurrency limit {} -> {} (latency {}x normal over {} samples)",
+                    (int) previous, (int) limit, String.format("%.2f", ratio), samples);
+        }
+        ratioSum = 0;
+        samples = 0;
+        windowStart = now;
+    }
+
+    public synchronized int currentLimit() {
+        return (int) limit;
+    }
+
+    public Duration retryAfter() {
+        return window.compareTo(Duration.ofSeconds(1)) > 0 ? window : Duration.ofSeconds(1);
+    }
+
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        status.put("limit", (int) limit);
+        status.put("inFlight", inFlight);
+        Map<String, Object> perGroup = new LinkedHashMap<>();
+        groups.forEach((name, group) -> {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("share", group.share);
+            entry.put("admissionLimit", Math.max(1, (int) Math.floor(limit * group.share)));
+            entry.put("inFlight", group.inFlight);
+            entry.put("normalLatencyMs", group.baselineNanos / 1_000_000.0);
+            entry.put("shed", (long) group.shed.count());
+            perGroup.put(name, entry);
+        });
+        status.put("groups", perGroup);
+        return status;
+    }
+}
@@ -0,0 +1,354 @@
+package com.k8sloverskorea.testspringbootapp.service;
+
+import com.k8sloverskorea.testspringbootapp.model.EntityChange;
+import com.k8sloverskorea.testspringbootapp.model.TestEntity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory feed of committed entity mutations, streamed to subscribers over Server-Sent Events.
+ * <p>
+ * Changes go into a bounded ring ({@code app.entities.changes.log-size}) with a sequence number.
+ * Subscribers never get a private queue. Each one keeps a cursor into the ring, and at most one drain
+ * task per subscriber sends from that cursor, so a slow client only holds up itself. A subscriber that
+ * falls further behind than the ring holds gets a {@code reset} event and continues from the head; the
+ * client should then reload the table. Event ids are {@code <epoch>-<sequence>}, where the epoch
+ * identifies this process, so a {@code Last-Event-ID} from before a restart also leads to a reset.
+ * The feed only covers writes made on this instance.
+ */
+@Component
+public class EntityChangeFeed {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EntityChangeFeed.class);
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.entities.changes.log-size:10000}")
+    private int logSize;
+    
+    @Value("${app.entities.changes.max-subscribers:100}")
+    private int maxSubscribers;
+    
+    @Value("${app.entities.changes.timeout:30m}")
+    private Duration timeout;
+    
+    @Value("${app.entities.changes.batch-size:256}")
+    private int batchSize;
+    
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+    
+    private final long epoch = System.currentTimeMillis();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    
+    // Guarded by this: ring[sequence % logSize] holds the change with that sequence
+    private EntityChange[] ring;
+    private long head;
+    
+    private ExecutorService senders;
+    private Counter published;
+    private Counter resets;
+    
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile long cursor;
+        volatile boolean resetPending;
+        volatile boolean closed;
+    
+        Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+    }
+    
+    @PostConstruct
+    void init() {
+        ring = new EntityChange[logSize];
+        // At most one drain task per subscriber, so the pool never needs more than maxSubscribers threads
+        senders = virtualThreadsEnabled
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("change-feed-", 0).factory())
+                : new ThreadPoolExecutor(0, maxSubscribers, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), namedDaemonThreads("change-feed-"));
+        published = Counter.builder("entity.changes.published")
+                .description("Entity changes appended to the change feed")
+                .register(meterRegistry);
+        resets = Counter.builder("entity.changes.resets")
+                .description("Subscribers that fell behind the retained change log and were reset")
+                .register(meterRegistry);
+        Gauge.builder("entity.changes.subscribers", subscribers, Set::size)
+                .description("Open change feed subscriptions")
+                .register(meterRegistry);
+        Gauge.builder("entity.changes.head", this, EntityChangeFeed::headSequence)
+                .description("Sequence number of the latest change")
+                .register(meterRegistry);
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        // Open streams would otherwise hold graceful shutdown until they time out
+        subscribers.forEach(this::close);
+        senders.shutdownNow();
+    }
+    
+    public void created(Collection<TestEntity> entities) {
+        publish(EntityChange.Type.CREATED, entities);
+    }
+    
+    public void updated(Collection<TestEntity> entities) {
+        publish(EntityChange.Type.UPDATED, entities);
+    }
+    
+    /**
+     * Publishes a DELETED change per id after commit. Callers pass only ids whose rows were
+     * actually deleted.
+     */
+    public void deleted(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Long> pending = List.copyOf(ids);
+        afterCommit(() -> {
+            Instant now = Instant.now();
+            append(pending.stream()
+                    .map(id -> new EntityChange(0, EntityChange.Type.DELETED, id, null, now))
+                    .toList());
+        });
+    }
+    
+    private void publish(EntityChange.Type type, Collection<TestEntity> entities) {
+        if (entities.isEmpty()) {
+            return;
+        }
+        // Capture now; the entities may be changed or detached before the commit
+        List<TestEntity> copies = entities.stream().map(TestEntity::copy).toList();
+        afterCommit(() -> {
+            Instant now = Instant.now();
+            append(copies.stream()
+                    .map(entity -> new EntityChange(0, type, entity.getId(), entity, now))
+                    .toList());
+        });
+    }
+    
+    private void append(List<EntityChange> changes) {
+        synchronized (this) {
+            for (EntityChange change : changes) {
+                long sequence = ++head;
+                ring[(int) (sequence % logSize)] = new EntityChange(sequence, change.type(), change.id(), change.entity(), change.timestamp());
+            }
+        }
+        published.increment(changes.size());
+        subscribers.forEach(this::schedule);
+    }
+    
+    /**
+     * Opens a stream starting after {@code lastEventId} (an id from an earlier event), or at the
+     * current head when it is null.
+     *
+     * @return empty when {@code app.entities.changes.max-subscribers} streams are already open
+     */
+    public Optional<SseEmitter> subscribe(String lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            logger.warn("Change feed subscription rejected - {} subscribers already connected", subscribers.size());
+            return Optional.empty();
+        }
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber;
+        synchronized (this) {
+            Long resumeFrom = parseSequence(lastEventId);
+            boolean resumable = resumeFrom != null && resumeFrom <= head && resumeFrom >= head - logSize;
+            subscriber = new Subscriber(emitter, resumable ? resumeFrom : head);
+            subscriber.resetPending = lastEventId != null && !resumable;
+        }
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> close(subscriber));
+        emitter.onError(error -> close(subscriber));
+        try {
+            // Tells the client where it starts; also sets its Last-Event-ID for reconnects
+            emitter.send(SseEmitter.event().name("ready").id(eventId(subscriber.cursor))
+                    .data(Map.of("sequence", subscriber.cursor), MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            close(subscriber);
+            return Optional.of(emitter);
+        }
+        logger.info("Change feed subscriber connected at sequence {} (Last-Event-ID {}, subscribers {})",
+                subscriber.cursor, lastEventId, subscribers.size());
+        schedule(subscriber);
+        return Optional.of(emitter);
+    }
+    
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.closed || !subscriber.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            senders.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException e) {
+            subscriber.draining.set(false);
+            close(subscriber);
+        }
+    }
+    
+    private void drain(Subscriber subscriber) {
+        try {
+            while (!subscriber.closed) {
+                List<EntityChange> batch = new ArrayList<>();
+                long resetTo = -1;
+                synchronized (this) {
+                    if (subscriber.resetPending || subscriber.cursor < head - logSize) {
+                        resetTo = head;
+                    } else {
+                        long last = Math.min(head, subscriber.cursor + batchSize);
+                        for (long sequence = subscriber.cursor + 1; sequence <= last; sequence++) {
+                            batch.add(ring[(int) (sequence % logSize)]);
+                        }
+                    }
+                }
+                if (resetTo >= 0) {
+                    resets.increment();
+                    Map<String, Object> reset = new LinkedHashMap<>();
+                    reset.put("reason", "requested position is no longer in the change log; reload entities");
+                    reset.put("sequence", resetTo);
+                    subscriber.emitter.send(SseEmitter.event().name("reset").id(eventId(resetTo)).data(reset, MediaType.APPLICATION_JSON));
+                    subscriber.cursor = resetTo;
+                    subscriber.resetPending = false;
+                    logger.warn("Change feed subscriber reset to sequence {}", resetTo);
+                    continue;
+                }
+                if (batch.isEmpty()) {
+                    break;
+                }
+                for (EntityChange change : batch) {
+                    subscriber.emitter.send(SseEmitter.event().id(eventId(change.sequence())).data(change, MediaType.APPLICATION_JSON));
+                    subscriber.cursor = change.sequence();
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Change feed subscriber disconnected: {}", e.toString());
+            close(subscriber);
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // A change appended after the last read but before the flag was cleared would otherwise wait for the next one
+        if (!subscriber.closed && subscriber.cursor < headSequence()) {
+            schedule(subscriber);
+        }
+    }
+    
+    @Scheduled(fixedRateString = "${app.entities.changes.heartbeat-interval:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.draining.get()) {
+                continue;
+            }
+            try {
+                subscriber.emitter.send(SseEmitter.event().comment("keepalive"));
+            } catch (IOException | IllegalStateException e) {
+                close(subscriber);
+            }
+        }
+    }
+    
+    private void close(Subscriber subscriber) {
+        subscriber.closed = true;
+        if (subscribers.remove(subscriber)) {
+            try {
+                subscriber.emitter.complete();
+            } catch (IllegalStateException e) {
+                // Already completed by the container
+            }
+        }
+    }
+    
+    public synchronized long headSequence() {
+        return head;
+    }
+    
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("head", headSequence());
+        status.put("logSize", logSize);
+        status.put("subscribers", subscribers.size());
+        status.put("maxSubscribers", maxSubscribers);
+        return status;
+    }
+    
+    private String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+    
+    // Sequence from an event id of this process; null for ids from another epoch or malformed ids
+    private Long parseSequence(String eventId) {
+        if (eventId == null) {
+            return null;
+        }
+        int dash = eventId.indexOf('-');
+        if (dash < 0 || !eventId.substring(0, dash).equals(String.valueOf(epoch))) {
+            return null;
+        }
+        try {
+            return Long.parseLong(eventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+    
+    private static ThreadFactory namedDaemonThreads(String prefix) {
+        AtomicInteger sequence = new AtomicInteger();
+        ThreadFactory defaults = Executors.defaultThreadFactory();
+        return runnable -> {
+            Thread thread = defaults.newThread(runnable);
+            thread.setName(prefix + sequence.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
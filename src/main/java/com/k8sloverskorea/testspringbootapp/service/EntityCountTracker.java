@@ -0,0 +1,84 @@
+package com.k8sloverskorea.testspringbootapp.service;
+
+import com.k8sloverskorea.testspringbootapp.repository.TestEntityRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the number of stored entities as an in-memory counter that {@link TestEntityService}
+ * adjusts on create/delete, published as the {@code entities.count} gauge. A periodic
+ * {@code COUNT(*)} reconciles any drift (e.g. rows changed outside the service).
+ */
+@Component
+public class EntityCountTracker {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EntityCountTracker.class);
+    
+    @Autowired
+    private TestEntityRepository repository;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private final AtomicLong count = new AtomicLong();
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        count.set(repository.count());
+        Gauge.builder("entities.count", count, AtomicLong::get)
+                .description("Number of stored TestEntity rows")
+                .register(meterRegistry);
+        logger.info("Entity count initialized to {}", count.get());
+    }
+    
+    public long get() {
+        return count.get();
+    }
+    
+    /**
+     * Adds {@code delta} once the surrounding transaction commits (immediately when there is none).
+     */
+    public void add(long delta) {
+        if (delta == 0) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    count.addAndGet(delta);
+                }
+            });
+        } else {
+            count.addAndGet(delta);
+        }
+    }
+    
+    @Scheduled(fixedRateString = "${app.entities.count.reconcile-interval:600000}",
+               initialDelayString = "${app.entities.count.reconcile-interval:600000}")
+    public void reconcile() {
+        long tracked = count.get();
+        long actual = repository.count();
+        // A create/delete applied meanwhile may or may not be in actual; retry next round instead
+        if (!count.compareAndSet(tracked, actual)) {
+            logger.debug("Entity count changed during reconciliation; skipping this round");
+            return;
+        }
+        if (tracked != actual) {
+            logger.warn("Entity count drift corrected: tracked {} vs actual {}", tracked, actual);
+        } else {
+            logger.debug("Entity count reconciled at {}", actual);
+        }
+    }
+}
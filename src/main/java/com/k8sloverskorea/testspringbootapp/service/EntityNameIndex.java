@@ -0,0 +1,259 @@
+package com.k8sloverskorea.testspringbootapp.service;
+
+import com.k8sloverskorea.testspringbootapp.repository.TestEntityRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index over {@code TestEntity.name} for case-insensitive substring search.
+ * <p>
+ * A query of three or more characters only visits ids in the posting lists of its trigrams, starting
+ * from the shortest list, so cost follows the number of candidates rather than table size. Shorter
+ * queries cannot be served by trigrams and fall back to a scan of the in-memory names (still no DB).
+ * Mutations are applied after the surrounding transaction commits.
+ */
+@Component
+public class EntityNameIndex {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EntityNameIndex.class);
+    
+    private static final int GRAM = 3;
+    
+    @Autowired
+    private TestEntityRepository repository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, String> names = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    
+    // Ids written while the initial build is running; the build must not overwrite them
+    private final Set<Long> touchedDuringBuild = new HashSet<>();
+    private volatile boolean building;
+    private volatile boolean ready;
+    
+    public record Match(List<Long> ids, int total) {
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long start = System.currentTimeMillis();
+        building = true;
+        try {
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setReadOnly(true);
+            template.executeWithoutResult(status -> repository.streamAllOrderById().forEach(entity -> {
+                lock.writeLock().lock();
+                try {
+                    if (!touchedDuringBuild.contains(entity.getId())) {
+                        put(entity.getId(), entity.getName());
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }));
+        } finally {
+            lock.writeLock().lock();
+            try {
+                building = false;
+                touchedDuringBuild.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        ready = true;
+        Gauge.builder("entity.name.index.size", this, EntityNameIndex::size)
+                .description("Entities held in the in-memory name search index")
+                .register(meterRegistry);
+        Gauge.builder("entity.name.index.grams", this, EntityNameIndex::gramCount)
+                .description("Distinct trigrams held in the in-memory name search index")
+                .register(meterRegistry);
+        logger.info("Name search index built with {} entities and {} trigrams in {} ms",
+                size(), gramCount(), System.currentTimeMillis() - start);
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    public void index(Long id, String name) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                markTouched(id);
+                remove(id);
+                put(id, name);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+    
+    public void removeAll(Collection<Long> ids) {
+        List<Long> pending = List.copyOf(ids);
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                for (Long id : pending) {
+                    markTouched(id);
+                    remove(id);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+    
+    /**
+     * Returns the ids (ascending) of names containing {@code query}, case-insensitively,
+     * skipping {@code offset} matches and returning at most {@code limit}.
+     */
+    public Match search(String query, int offset, int limit) {
+        String needle = normalize(query);
+        lock.readLock().lock();
+        try {
+            List<Long> matches = new ArrayList<>();
+            if (needle.length() < GRAM) {
+                for (Map.Entry<Long, String> entry : names.entrySet()) {
+                    if (entry.getValue().contains(needle)) {
+                        matches.add(entry.getKey());
+                    }
+                }
+            } else {
+                Set<String> grams = grams(needle);
+                List<Set<Long>> lists = new ArrayList<>(grams.size());
+                for (String gram : grams) {
+                    Set<Long> ids = postings.get(gram);
+                    if (ids == null) {
+                        return new Match(List.of(), 0);
+                    }
+                    lists.add(ids);
+                }
+                lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+                Set<Long> smallest = lists.get(0);
+                candidates:
+                for (Long id : smallest) {
+                    for (int i = 1; i < lists.size(); i++) {
+                        if (!lists.get(i).contains(id)) {
+                            continue candidates;
+                        }
+                    }
+                    // Trigram hits are necessary but not sufficient; confirm the substring
+                    if (names.get(id).contains(needle)) {
+                        matches.add(id);
+                    }
+                }
+            }
+            Collections.sort(matches);
+            int from = Math.min(Math.max(offset, 0), matches.size());
+            int to = Math.min(from + Math.max(limit, 0), matches.size());
+            return new Match(List.copyOf(matches.subList(from, to)), matches.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private int size() {
+        lock.readLock().lock();
+        try {
+            return names.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private int gramCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Callers hold the write lock
+    private void put(Long id, String name) {
+        if (name == null) {
+            return;
+        }
+        String normalized = normalize(name);
+        names.put(id, normalized);
+        for (String gram : grams(normalized)) {
+            postings.computeIfAbsent(gram, g -> new HashSet<>()).add(id);
+        }
+    }
+    
+    // Callers hold the write lock
+    private void remove(Long id) {
+        String previous = names.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String gram : grams(previous)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+    
+    private void markTouched(Long id) {
+        if (building) {
+            touchedDuringBuild.add(id);
+        }
+    }
+    
+    private static Set<String> grams(String normalized) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= normalized.length(); i++) {
+            grams.add(normalized.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+    
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+    
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,618 @@
+package com.k8sloverskorea.testspringbootapp.service;
+
+import com.k8sloverskorea.testspringbootapp.model.TestEntity;
+import com.k8sloverskorea.testspringbootapp.repository.TestEntityRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Optional file-backed persistence for {@code TestEntity} on top of the in-memory H2 database
+ * ({@code app.entities.persistence.enabled}).
+ * <p>
+ * Every committed mutation is appended as a CRC-checked record to a memory-mapped, append-only
+ * segment ({@code wal-N.log}), so writes stay sequential and never touch the database twice.
+ * Periodically, or once the log outgrows {@code compact-threshold}, the table is written to a
+ * snapshot ({@code snapshot-N.dat}, covering all segments before N) and older files are deleted.
+ * At startup the latest complete snapshot plus the following segments are replayed into H2
+ * before the name index and entity count are built. Replay keeps the highest version per id
+ * (log order breaks ties) and deletes are final, since ids are never reused.
+ * <p>
+ * A failed append never fails the request: the transaction has already committed. Instead the log
+ * is marked failed (health DOWN, {@code entity.wal.failed} = 1), further appends are skipped and the
+ * next compaction check writes a full snapshot, which covers everything that was not logged.
+ */
+@Component
+public class EntityWriteAheadLog implements HealthIndicator {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EntityWriteAheadLog.class);
+    
+    private static final byte UPSERT = 1;
+    private static final byte DELETE = 2;
+    private static final byte END = 3;
+    private static final int FRAME_HEADER = 8;
+    private static final int DELETE_IDS_PER_RECORD = 1024;
+    private static final Pattern SEGMENT = Pattern.compile("wal-(\\d+)\\.log");
+    private static final Pattern SNAPSHOT = Pattern.compile("snapshot-(\\d+)\\.dat");
+    
+    @Autowired
+    private TestEntityRepository repository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.entities.persistence.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${app.entities.persistence.directory:./data/entities}")
+    private Path directory;
+    
+    @Value("${app.entities.persistence.segment-size:64MB}")
+    private DataSize segmentSize;
+    
+    @Value("${app.entities.persistence.compact-threshold:256MB}")
+    private DataSize compactThreshold;
+    
+    @Value("${app.entities.persistence.snapshot-interval:300000}")
+    private long snapshotIntervalMs;
+    
+    @Value("${app.entities.persistence.fsync:false}")
+    private boolean fsync;
+    
+    @Value("${app.entities.batch.chunk-size:500}")
+    private int insertChunkSize;
+    
+    // Replayed state of one entity
+    private record EntityRecord(long id, String name, String description, LocalDateTime createdAt, LocalDateTime updatedAt, long version) {
+        
+        static EntityRecord of(TestEntity entity) {
+            return new EntityRecord(entity.getId(), entity.getName(), entity.getDescription(),
+                    entity.getCreatedAt(), entity.getUpdatedAt(), entity.getVersion() != null ? entity.getVersion() : 0L);
+        }
+    }
+    
+    private FileChannel segmentChannel;
+    private MappedByteBuffer segment;
+    private long segmentNumber;
+    private final AtomicLong bytesSinceSnapshot = new AtomicLong();
+    private volatile long lastSnapshotMillis = System.currentTimeMillis();
+    // Set when an append or snapshot failed; cleared once a snapshot again covers the whole table
+    private volatile boolean failed;
+    private volatile String lastFailure;
+    private Counter upsertRecords;
+    private Counter deleteRecords;
+    private Counter appendFailures;
+    private Timer snapshotTimer;
+    
+    @PostConstruct
+    void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        upsertRecords = recordCounter("upsert");
+        deleteRecords = recordCounter("delete");
+        appendFailures = Counter.builder("entity.wal.append.failures")
+                .description("Committed mutations that could not be appended to the write-ahead log")
+                .register(meterRegistry);
+        Gauge.builder("entity.wal.failed", this, wal -> wal.failed ? 1 : 0)
+                .description("1 while mutations are not being logged and a recovery snapshot is pending")
+                .register(meterRegistry);
+        snapshotTimer = Timer.builder("entity.wal.snapshot")
+                .description("Time taken to write an entity snapshot and compact the log")
+                .register(meterRegistry);
+        Gauge.builder("entity.wal.size", bytesSinceSnapshot, AtomicLong::get)
+                .baseUnit("bytes")
+                .description("Log bytes appended since the last snapshot")
+                .register(meterRegistry);
+        
+        Files.createDirectories(directory);
+        long start = System.currentTimeMillis();
+        long lastSegment = replay();
+        // Always continue in a fresh segment so a torn tail from a crash is never appended to
+        synchronized (this) {
+            openSegment(lastSegment + 1);
+        }
+        logger.info("Entity write-ahead log opened in {} (segment {}, replay took {} ms)",
+                directory.toAbsolutePath(), segmentNumber, System.currentTimeMillis() - start);
+        if (lastSegment >= 0) {
+            snapshot();
+        }
+    }
+    
+    @PreDestroy
+    void close() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        if (failed || bytesSinceSnapshot.get() > 0) {
+            snapshot();
+        }
+        synchronized (this) {
+            segment.force();
+            segmentChannel.close();
+        }
+    }
+    
+    private Counter recordCounter(String type) {
+        return Counter.builder("entity.wal.records")
+                .tag("type", type)
+                .description("Entity mutations appended to the write-ahead log")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Logs the current state of {@code entities} once the surrounding transaction commits.
+     */
+    public void recordUpserts(Collection<TestEntity> entities) {
+        if (!enabled || entities.isEmpty()) {
+            return;
+        }
+        // Capture now; the entities may be changed or detached before the commit
+        List<EntityRecord> records = entities.stream().map(EntityRecord::of).toList();
+        afterCommit(() -> {
+            List<byte[]> payloads = new ArrayList<>(records.size());
+            for (EntityRecord record : records) {
+                payloads.add(encodeUpsert(record));
+            }
+            if (append(payloads)) {
+                upsertRecords.increment(records.size());
+            }
+        });
+    }
+    
+    public void recordDeletes(Collection<Long> ids) {
+        if (!enabled || ids.isEmpty()) {
+            return;
+        }
+        List<Long> pending = List.copyOf(ids);
+        afterCommit(() -> {
+            List<byte[]> payloads = new ArrayList<>();
+            for (int from = 0; from < pending.size(); from += DELETE_IDS_PER_RECORD) {
+                payloads.add(encodeDelete(pending.subList(from, Math.min(from + DELETE_IDS_PER_RECORD, pending.size()))));
+            }
+            if (append(payloads)) {
+                deleteRecords.increment(pending.size());
+            }
+        });
+    }
+    
+    /**
+     * Runs after commit, so it must not throw: on failure the log is marked failed and the records
+     * are left to the next snapshot.
+     *
+     * @return whether the records were logged
+     */
+    private synchronized boolean append(List<byte[]> payloads) {
+        if (failed) {
+            // The segment may be unusable; the recovery snapshot will cover these records
+            appendFailures.increment(payloads.size());
+            return false;
+        }
+        try {
+            int batchStart = segment.position();
+            for (byte[] payload : payloads) {
+                int frameSize = FRAME_HEADER + payload.length;
+                if (frameSize > segment.capacity()) {
+                    throw new IOException("Record of " + frameSize + " bytes exceeds segment size " + segment.capacity());
+                }
+                if (segment.remaining() < frameSize) {
+                    if (fsync) {
+                        segment.force(batchStart, segment.position() - batchStart);
+                    }
+                    openSegment(segmentNumber + 1);
+                    batchStart = 0;
+                }
+                segment.putInt(payload.length);
+                segment.putInt(crc(payload));
+                segment.put(payload);
+                bytesSinceSnapshot.addAndGet(frameSize);
+            }
+            if (fsync) {
+                segment.force(batchStart, segment.position() - batchStart);
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to append {} records to the entity write-ahead log; logging suspended until the next snapshot",
+                    payloads.size(), e);
+            appendFailures.increment(payloads.size());
+            lastFailure = e.toString();
+            failed = true;
+            return false;
+        }
+    }
+    
+    private void openSegment(long number) throws IOException {
+        if (segmentChannel != null) {
+            segment.force();
+            segmentChannel.close();
+        }
+        segmentNumber = number;
+        segmentChannel = FileChannel.open(segmentPath(number),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // Mapping past the end grows the file; unwritten space reads back as zero (end of log)
+        segment = segmentChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize.toBytes());
+    }
+    
+    @Scheduled(fixedDelayString = "${app.entities.persistence.check-interval:30000}",
+               initialDelayString = "${app.entities.persistence.check-interval:30000}")
+    public void compactIfNeeded() {
+        if (!enabled) {
+            return;
+        }
+        if (failed) {
+            logger.info("Writing recovery snapshot after a write-ahead log failure");
+            snapshot();
+            return;
+        }
+        if (bytesSinceSnapshot.get() == 0) {
+            return;
+        }
+        if (bytesSinceSnapshot.get() >= compactThreshold.toBytes()
+                || System.currentTimeMillis() - lastSnapshotMillis >= snapshotIntervalMs) {
+            snapshot();
+        }
+    }
+    
+    /**
+     * Writes the whole table to {@code snapshot-N.dat} and deletes the segments and snapshots it
+     * supersedes. Records appended while the snapshot runs land in segment N or later and are
+     * replayed on top of it. Once the new segment is open, appends resume after a failure: anything
+     * committed before that point is read by the snapshot itself.
+     */
+    public void snapshot() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        long number;
+        long coveredBytes;
+        try {
+            synchronized (this) {
+                coveredBytes = bytesSinceSnapshot.get();
+                openSegment(segmentNumber + 1);
+                number = segmentNumber;
+                failed = false;
+            }
+            Path temp = directory.resolve("snapshot-" + number + ".tmp");
+            long[] written = new long[1];
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16))) {
+                TransactionTemplate template = new TransactionTemplate(transactionManager);
+                template.setReadOnly(true);
+                template.executeWithoutResult(status -> {
+                    try (Stream<TestEntity> entities = repository.streamAllOrderById()) {
+                        entities.forEach(entity -> {
+                            writeFrame(out, encodeUpsert(EntityRecord.of(entity)));
+                            written[0]++;
+                        });
+                    }
+                });
+                writeFrame(out, new byte[] { END });
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(temp, directory.resolve("snapshot-" + number + ".dat"), StandardCopyOption.ATOMIC_MOVE);
+            bytesSinceSnapshot.addAndGet(-coveredBytes);
+            lastSnapshotMillis = System.currentTimeMillis();
+            int deleted = deleteBefore(number);
+            snapshotTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            logger.info("Wrote entity snapshot {} with {} entities, removed {} old files in {} ms",
+                    number, written[0], deleted, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to write entity snapshot", e);
+            lastFailure = e.toString();
+            failed = true;
+        }
+    }
+    
+    @Override
+    public Health health() {
+        if (!enabled) {
+            return Health.up().withDetail("enabled", false).build();
+        }
+        Health.Builder health = failed ? Health.down().withDetail("lastFailure", lastFailure) : Health.up();
+        return health.withDetail("segment", segmentNumber)
+                .withDetail("bytesSinceSnapshot", bytesSinceSnapshot.get())
+                .withDetail("failedAppends", (long) appendFailures.count())
+                .build();
+    }
+    
+    private int deleteBefore(long number) throws IOException {
+        int deleted = 0;
+        for (Path file : list(SEGMENT)) {
+            if (fileNumber(file, SEGMENT) < number) {
+                Files.deleteIfExists(file);
+                deleted++;
+            }
+        }
+        for (Path file : list(SNAPSHOT)) {
+            if (fileNumber(file, SNAPSHOT) < number) {
+                Files.deleteIfExists(file);
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+    
+    /**
+     * Loads the latest complete snapshot and the segments after it into the database.
+     *
+     * @return the highest segment number found, or -1 when the directory holds no log
+     */
+    private long replay() throws IOException {
+        Map<Long, EntityRecord> state = new HashMap<>();
+        Set<Long> deleted = new HashSet<>();
+        
+        long snapshotNumber = -1;
+        List<Path> snapshots = list(SNAPSHOT);
+        for (int i = snapshots.size() - 1; i >= 0 && snapshotNumber < 0; i--) {
+            Path file = snapshots.get(i);
+            Map<Long, EntityRecord> loaded = new HashMap<>();
+            if (readSnapshot(file, loaded)) {
+                state.putAll(loaded);
+                snapshotNumber = fileNumber(file, SNAPSHOT);
+                logger.info("Loaded entity snapshot {} with {} entities", file.getFileName(), loaded.size());
+            } else {
+                logger.warn("Ignoring incomplete entity snapshot {}", file.getFileName());
+            }
+        }
+        
+        long lastSegment = snapshotNumber;
+        long replayed = 0;
+        for (Path file : list(SEGMENT)) {
+            long number = fileNumber(file, SEGMENT);
+            lastSegment = Math.max(lastSegment, number);
+            if (number < snapshotNumber) {
+                continue;
+            }
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+                byte[] payload;
+                while ((payload = readFrame(in)) != null) {
+                    apply(payload, state, deleted);
+                    replayed++;
+                }
+            }
+        }
+        
+        insert(state.values());
+        logger.info("Replayed {} log records; restored {} entities", replayed, state.size());
+        return lastSegment;
+    }
+    
+    private boolean readSnapshot(Path file, Map<Long, EntityRecord> state) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            byte[] payload;
+            while ((payload = readFrame(in)) != null) {
+                if (payload[0] == END) {
+                    return true;
+                }
+                apply(payload, state, new HashSet<>());
+            }
+        }
+        return false;
+    }
+    
+    private static void apply(byte[] payload, Map<Long, EntityRecord> state, Set<Long> deleted) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte type = in.readByte();
+        if (type == UPSERT) {
+            EntityRecord record = new EntityRecord(in.readLong(), readString(in), readString(in),
+                    readTime(in), readTime(in), in.readLong());
+            if (deleted.contains(record.id())) {
+                return;
+            }
+            state.merge(record.id(), record, (current, next) -> next.version() < current.version() ? current : next);
+        } else if (type == DELETE) {
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                long id = in.readLong();
+                state.remove(id);
+                deleted.add(id);
+            }
+        }
+    }
+    
+    private void insert(Collection<EntityRecord> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        List<EntityRecord> all = new ArrayList<>(records);
+        long maxId = 0;
+        for (int from = 0; from < all.size(); from += insertChunkSize) {
+            List<EntityRecord> chunk = all.subList(from, Math.min(from + insertChunkSize, all.size()));
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO test_entities (id, name, description, created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?)",
+                    chunk, chunk.size(), (statement, record) -> {
+                        statement.setLong(1, record.id());
+                        statement.setString(2, record.name());
+                        statement.setString(3, record.description());
+                        statement.setTimestamp(4, record.createdAt() != null ? Timestamp.valueOf(record.createdAt()) : null);
+                        statement.setTimestamp(5, record.updatedAt() != null ? Timestamp.valueOf(record.updatedAt()) : null);
+                        statement.setLong(6, record.version());
+                    });
+            for (EntityRecord record : chunk) {
+                maxId = Math.max(maxId, record.id());
+            }
+        }
+        // Hibernate's pooled optimizer hands out (value - allocationSize, value], so leave room past maxId
+        jdbcTemplate.execute("ALTER SEQUENCE test_entities_seq RESTART WITH " + (maxId + 50));
+    }
+    
+    private static byte[] encodeUpsert(EntityRecord record) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(UPSERT);
+            out.writeLong(record.id());
+            writeString(out, record.name());
+            writeString(out, record.description());
+            writeTime(out, record.createdAt());
+            writeTime(out, record.updatedAt());
+            out.writeLong(record.version());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+    
+    private static byte[] encodeDelete(List<Long> ids) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(5 + ids.size() * 8);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(DELETE);
+            out.writeInt(ids.size());
+            for (Long id : ids) {
+                out.writeLong(id);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+    
+    private static void writeFrame(DataOutputStream out, byte[] payload) {
+        try {
+            out.writeInt(payload.length);
+            out.writeInt(crc(payload));
+            out.write(payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Reads the next frame, or returns null at the end of the log: a zero length (unwritten space),
+     * end of file, or a torn/corrupt frame.
+     */
+    private static byte[] readFrame(DataInputStream in) throws IOException {
+        try {
+            int length = in.readInt();
+            int crc = in.readInt();
+            if (length <= 0 || length > (1 << 24)) {
+                return null;
+            }
+            byte[] payload = in.readNBytes(length);
+            if (payload.length != length || crc(payload) != crc) {
+                return null;
+            }
+            return payload;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+    
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+    
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        return length < 0 ? null : new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+    
+    private static void writeTime(DataOutputStream out, LocalDateTime value) throws IOException {
+        writeString(out, value != null ? value.toString() : null);
+    }
+    
+    private static LocalDateTime readTime(DataInputStream in) throws IOException {
+        String value = readString(in);
+        return value != null ? LocalDateTime.parse(value) : null;
+    }
+    
+    private static int crc(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+    
+    private Path segmentPath(long number) {
+        return directory.resolve("wal-" + number + ".log");
+    }
+    
+    private List<Path> list(Pattern pattern) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> pattern.matcher(file.getFileName().toString()).matches())
+                    .sorted((a, b) -> Long.compare(fileNumber(a, pattern), fileNumber(b, pattern)))
+                    .toList();
+        }
+    }
+    
+    private static long fileNumber(Path file, Pattern pattern) {
+        Matcher matcher = pattern.matcher(file.getFileName().toString());
+        return matcher.matches() ? Long.parseLong(matcher.group(1)) : -1;
+    }
+    
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.k8sloverskorea.testspringbootapp.service;
+
+import com.k8sloverskorea.testspringbootapp.model.TestEntity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind buffer for single-entity creates ({@code app.entities.write-behind.enabled}).
+ * <p>
+ * Creates are queued in a bounded buffer and a single writer thread inserts them in groups through
+ * {@link TestEntityService#createEntities(List)}. A group is flushed when it reaches
+ * {@code batch-size} or {@code flush-interval} after its first entry, whichever comes first. If a
+ * group fails it is retried row by row, so one bad row only fails its own caller. When the buffer is
+ * full, callers wait up to {@code enqueue-timeout} and are then rejected (backpressure). On shutdown
+ * the buffer is stopped after graceful shutdown has let in-flight requests finish and before the web
+ * server and datasource go away, and everything still queued is written first.
+ */
+@Component
+public class EntityWriteBuffer implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(EntityWriteBuffer.class);
+
+    // Between WebServerGracefulShutdownLifecycle (DEFAULT_PHASE - 1024) and WebServerStartStopLifecycle (- 2048)
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 1536;
+
+    // Lazy: TestEntityService depends on this buffer as well
+    @Lazy
+    @Autowired
+    private TestEntityService entityService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private Tracer tracer;
+
+    @Value("${app.entities.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.entities.write-behind.capacity:10000}")
+    private int capacity;
+
+    @Value("${app.entities.write-behind.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.entities.write-behind.flush-interval:50ms}")
+    private Duration flushInterval;
+
+    @Value("${app.entities.write-behind.enqueue-timeout:100ms}")
+    private Duration enqueueTimeout;
+
+    @Value("${app.entities.write-behind.drain-timeout:10s}")
+    private Duration drainTimeout;
+
+    private BlockingQueue<Pending> queue;
+    private Thread writer;
+    private volatile boolean running;
+    private Timer flushTimer;
+    private DistributionSummary flushSize;
+    private Counter rejected;
+    private Counter failed;
+
+    private record Pending(TestEntity entity, CompletableFuture<TestEntity> committed) {
+    }
+
+    @PostConstruct
+    void init() {
+        queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        Gauge.builder("entity.write.buffer.depth", queue, BlockingQueue::size)
+                .description("Creates waiting in the write-behind buffer")
+                .register(meterRegistry);
+        Gauge.builder("entity.write.buffer.capacity", queue, q -> capacity)
+                .description("Capacity of the write-behind buffer")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("entity.write.flush")
+                .description("Time to insert and commit one write-behind group")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        flushSize = DistributionSummary.builder("entity.write.flush.size")
+                .description("Entities per write-behind group")
+                .register(meterRegistry);
+        rejected = Counter.builder("entity.write.buffer.rejected")
+                .description("Creates rejected because the write-behind buffer stayed full")
+                .register(meterRegistry);
+        failed = Counter.builder("entity.write.buffer.failed")
+                .description("Buffered creates that could not be inserted")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues {@code entity} for insertion. The returned future completes with the saved entity
+     * once its group has committed.
+     *
+     * @throws RejectedExecutionException if the buffer is still full after {@code enqueue-timeout}
+     *                                    or the buffer is shutting down
+     */
+    public CompletableFuture<TestEntity> submit(TestEntity entity) {
+        if (!running) {
+            throw new RejectedExecutionException("Write-behind buffer is not running");
+        }
+        Pending pending = new Pending(entity, new CompletableFuture<>());
+        try {
+            if (!queue.offer(pending, enqueueTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                rejected.increment();
+                throw new RejectedExecutionException("Write-behind buffer is full (" + capacity + " entries)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for buffer space", e);
+        }
+        return pending.committed();
+    }
+
+    public int depth() {
+        return queue.size();
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        writer = Thread.ofPlatform().name("entity-writer").start(this::runWriter);
+        logger.info("Write-behind buffer started (capacity {}, batch-size {}, flush-interval {})", capacity, batchSize, flushInterval);
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        logger.info("Draining write-behind buffer ({} queued)", queue.size());
+        try {
+            writer.join(drainTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            logger.error("Write-behind buffer not drained within {} - {} creates left unwritten", drainTimeout, queue.size());
+            return;
+        }
+        // Entries offered after the writer saw the buffer empty and exited
+        List<Pending> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            flush(remaining);
+        }
+        logger.info("Write-behind buffer drained");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void runWriter() {
+        List<Pending> group = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                long deadline = System.nanoTime() + flushInterval.toNanos();
+                while (group.size() < batchSize) {
+                    queue.drainTo(group, batchSize - group.size());
+                    long remaining = deadline - System.nanoTime();
+                    // While draining for shutdown, do not wait for a group to fill up
+                    if (group.size() >= batchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                }
+                flush(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.warn("Write-behind writer interrupted with {} creates queued", queue.size());
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Unexpected error in write-behind writer", e);
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void flush(List<Pending> group) {
+        Span span = tracer.spanBuilder("write-behind-flush").startSpan();
+        try {
+            span.setAttribute("entities", group.size());
+            flushSize.record(group.size());
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                List<TestEntity> saved = entityService.createEntities(group.stream().map(Pending::entity).toList());
+                sample.stop(flushTimer);
+                for (int i = 0; i < group.size(); i++) {
+                    group.get(i).committed().complete(saved.get(i));
+                }
+                logger.debug("Flushed {} buffered creates", group.size());
+            } catch (RuntimeException e) {
+                sample.stop(flushTimer);
+                logger.warn("Write-behind group of {} failed, retrying row by row: {}", group.size(), e.getMessage());
+                for (Pending pending : group) {
+                    try {
+                        // The failed group may have assigned ids that were rolled back
+                        pending.entity().setId(null);
+                        pending.committed().complete(entityService.createEntity(pending.entity()));
+                    } catch (RuntimeException rowFailure) {
+                        failed.increment();
+                        pending.committed().completeExceptionally(rowFailure);
+                    }
+                }
+            }
+        } finally {
+            span.end();
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.k8sloverskorea.testspringbootapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Internal fan-out used by the block-thread scenario to occupy the remaining request threads.
+ * <p>
+ * Requests go through one shared {@link HttpClient} (HTTP/1.1 keep-alive by default, so connections
+ * are reused across fan-outs) whose callbacks run on a fixed pool, optionally on virtual threads.
+ * A semaphore caps the requests in flight across all fan-outs, and each {@link FanOut} aggregates
+ * status codes and latencies so the caller can report what actually happened.
+ * <p>
+ * Each fan-out is dispatched from its own virtual thread, never from the callback pool: a pool
+ * thread blocked on the semaphore could otherwise starve the callbacks that release it. The pool's
+ * queue is unbounded so the client never has a callback rejected; its depth is bounded by the
+ * in-flight cap.
+ */
+@Service
+public class FanOutService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(FanOutService.class);
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.scenarios.fan-out.pool-size:8}")
+    private int poolSize;
+    
+    @Value("${app.scenarios.fan-out.max-in-flight:512}")
+    private int maxInFlight;
+    
+    @Value("${app.scenarios.fan-out.http-version:HTTP_1_1}")
+    private HttpClient.Version httpVersion;
+    
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+    
+    private ExecutorService executor;
+    private HttpClient httpClient;
+    private Semaphore inFlight;
+    private Counter succeeded;
+    private Counter failed;
+    private Counter rejected;
+    private final AtomicInteger dispatchers = new AtomicInteger();
+    
+    @PostConstruct
+    void init() {
+        if (virtualThreadsEnabled) {
+            executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("fan-out-", 0).factory());
+        } else {
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), namedDaemonThreads("fan-out-"));
+            ExecutorServiceMetrics.monitor(meterRegistry, pool, "scenario.fanout");
+            executor = pool;
+        }
+        httpClient = HttpClient.newBuilder()
+                .version(httpVersion)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(executor)
+                .build();
+        inFlight = new Semaphore(maxInFlight);
+        Gauge.builder("scenario.fanout.in.flight", inFlight, s -> maxInFlight - s.availablePermits())
+                .description("Internal fan-out requests currently in flight")
+                .register(meterRegistry);
+        succeeded = outcomeCounter("success");
+        failed = outcomeCounter("error");
+        rejected = outcomeCounter("rejected");
+        logger.info("Fan-out client started (version={}, maxInFlight={}, virtual={})", httpVersion, maxInFlight, virtualThreadsEnabled);
+    }
+    
+    private Counter outcomeCounter(String outcome) {
+        return Counter.builder("scenario.fanout.requests")
+                .tag("outcome", outcome)
+                .description("Internal fan-out requests by outcome")
+                .register(meterRegistry);
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    /**
+     * Progress and results of one fan-out.
+     */
+    public static final class FanOut {
+        
+        private final int requested;
+        private final long startNanos = System.nanoTime();
+        private final CountDownLatch done;
+        private final AtomicInteger dispatched = new AtomicInteger();
+        private final LongAdder errors = new LongAdder();
+        private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+        private final Histogram latencyMicros = new ConcurrentHistogram(3);
+        
+        FanOut(int requested) {
+            this.requested = requested;
+            this.done = new CountDownLatch(requested);
+        }
+        
+        void record(long sentNanos, HttpResponse<?> response, Throwable failure) {
+            latencyMicros.recordValue(Math.max(0, (System.nanoTime() - sentNanos) / 1_000));
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+            String outcome = cause != null ? cause.getClass().getSimpleName() : String.valueOf(response.statusCode());
+            outcomes.computeIfAbsent(outcome, o -> new LongAdder()).increment();
+            if (failure != null || response.statusCode() >= 400) {
+                errors.increment();
+            }
+            done.countDown();
+        }
+        
+        void skip(String reason, int count) {
+            outcomes.computeIfAbsent(reason, o -> new LongAdder()).add(count);
+            errors.add(count);
+            for (int i = 0; i < count; i++) {
+                done.countDown();
+            }
+        }
+        
+        /**
+         * Waits up to {@code timeout} for outstanding requests and summarizes the results so far.
+         */
+        public Map<String, Object> await(Duration timeout) {
+            boolean complete;
+            try {
+                complete = done.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                complete = false;
+            }
+            long finished = requested - done.getCount();
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("requested", requested);
+            summary.put("dispatched", dispatched.get());
+            summary.put("completed", finished);
+            summary.put("pending", done.getCount());
+            summary.put("allCompleted", complete);
+            summary.put("errors", errors.sum());
+            Map<String, Long> byOutcome = new TreeMap<>();
+            outcomes.forEach((outcome, count) -> byOutcome.put(outcome, count.sum()));
+            summary.put("outcomes", byOutcome);
+            if (latencyMicros.getTotalCount() > 0) {
+                Map<String, Object> latency = new LinkedHashMap<>();
+                latency.put("unit", "ms");
+                latency.put("min", latencyMicros.getMinValue() / 1000.0d);
+                latency.put("p50", latencyMicros.getValueAtPercentile(50.0) / 1000.0d);
+                latency.put("p99", latencyMicros.getValueAtPercentile(99.0) / 1000.0d);
+                latency.put("max", latencyMicros.getMaxValue() / 1000.0d);
+                summary.put("latency", latency);
+            }
+            summary.put("elapsedMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            return summary;
+        }
+    }
+    
+    /**
+     * Sends {@code count} POST requests to {@code uri}. Dispatch runs on a separate virtual thread
+     * and waits for in-flight permits, so the caller returns immediately.
+     */
+    public FanOut start(URI uri, int count, Duration requestTimeout) {
+        FanOut fanOut = new FanOut(count);
+        if (count <= 0) {
+            return fanOut;
+        }
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(uri)
+                .timeout(requestTimeout)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        Thread.ofVirtual()
+                .name("fan-out-dispatch-" + dispatchers.getAndIncrement())
+                .start(() -> dispatch(fanOut, request, count));
+        return fanOut;
+    }
+    
+    private void dispatch(FanOut fanOut, HttpRequest request, int count) {
+        for (int i = 0; i < count; i++) {
+            try {
+                inFlight.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                rejected.increment(count - i);
+                fanOut.skip("Interrupted", count - i);
+                return;
+            }
+            fanOut.dispatched.incrementAndGet();
+            long sentNanos = System.nanoTime();
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        inFlight.release();
+                        if (failure != null || response.statusCode() >= 400) {
+                            failed.increment();
+                        } else {
+                            succeeded.increment();
+                        }
+                        fanOut.record(sentNanos, response, failure);
+                    });
+        }
+        logger.info("Dispatched {} fan-out requests to {}", count, request.uri());
+    }
+    
+    private static ThreadFactory namedDaemonThreads(String prefix) {
+        AtomicInteger sequence = new AtomicInteger();
+        ThreadFactory defaults = Executors.defaultThreadFactory();
+        return runnable -> {
+            Thread thread = defaults.newThread(runnable);
+            thread.setName(prefix + sequence.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
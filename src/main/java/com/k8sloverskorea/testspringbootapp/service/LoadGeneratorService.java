@@ -0,0 +1,245 @@
+package com.k8sloverskorea.testspringbootapp.service;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In-process HTTP load generator aimed at this application's own endpoints.
+ * <p>
+ * Open-loop mode sends at a constant arrival rate and measures each latency from the request's
+ * <em>intended</em> send time, so time spent waiting for a free concurrency slot counts against the
+ * service (no coordinated omission). Closed-loop mode runs {@code concurrency} workers back to back;
+ * with a rate set, each worker is paced and measured against its schedule in the same way.
+ */
+@Service
+public class LoadGeneratorService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LoadGeneratorService.class);
+    
+    @Value("${server.port:8080}")
+    private int serverPort;
+    
+    @Value("${app.scenarios.load.max-seconds:300}")
+    private int maxSeconds;
+    
+    @Value("${app.scenarios.load.max-concurrency:1000}")
+    private int maxConcurrency;
+    
+    @Value("${app.scenarios.load.max-rate:100000}")
+    private int maxRate;
+    
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    
+    public record LoadSpec(String path, String method, String body, String mode, int concurrency, int seconds, int rate) {
+    }
+    
+    private static final class Stats {
+        final Histogram latencyMicros = new ConcurrentHistogram(3);
+        final LongAdder sent = new LongAdder();
+        final LongAdder completed = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final AtomicLong maxSendLagNanos = new AtomicLong();
+        final Map<String, LongAdder> statusCodes = new ConcurrentHashMap<>();
+        
+        void record(long intendedNanos, HttpResponse<?> response, Throwable failure) {
+            latencyMicros.recordValue(Math.max(0, (System.nanoTime() - intendedNanos) / 1_000));
+            completed.increment();
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+            String status = cause != null ? cause.getClass().getSimpleName() : String.valueOf(response.statusCode());
+            statusCodes.computeIfAbsent(status, s -> new LongAdder()).increment();
+            if (failure != null || response.statusCode() >= 400) {
+                errors.increment();
+            }
+        }
+    }
+    
+    /**
+     * Validates the spec against the configured limits.
+     *
+     * @throws IllegalArgumentException when the spec is out of bounds or targets a disallowed path
+     */
+    public void validate(LoadSpec spec) {
+        if (spec.path() == null || !spec.path().startsWith("/") || spec.path().contains("://")) {
+            throw new IllegalArgumentException("path must be a path on this application, e.g. /api/entities");
+        }
+        if (spec.path().startsWith("/api/test/load") || spec.path().startsWith("/api/test/async/load")) {
+            throw new IllegalArgumentException("the load generator cannot target itself");
+        }
+        if (!"open".equals(spec.mode()) && !"closed".equals(spec.mode())) {
+            throw new IllegalArgumentException("mode must be 'open' or 'closed'");
+        }
+        if (spec.seconds() < 1 || spec.seconds() > maxSeconds) {
+            throw new IllegalArgumentException("seconds must be between 1 and " + maxSeconds);
+        }
+        if (spec.concurrency() < 1 || spec.concurrency() > maxConcurrency) {
+            throw new IllegalArgumentException("concurrency must be between 1 and " + maxConcurrency);
+        }
+        if (spec.rate() < 0 || spec.rate() > maxRate || ("open".equals(spec.mode()) && spec.rate() == 0)) {
+            throw new IllegalArgumentException("rate must be between 1 and " + maxRate + " (0 allowed only for closed mode)");
+        }
+    }
+    
+    public Map<String, Object> run(LoadSpec spec) {
+        validate(spec);
+        HttpRequest request = buildRequest(spec);
+        Stats stats = new Stats();
+        logger.warn("Load generation started - {} {} mode={} concurrency={} rate={}/s for {}s",
+                spec.method(), spec.path(), spec.mode(), spec.concurrency(), spec.rate(), spec.seconds());
+        
+        long start = System.nanoTime();
+        boolean interrupted = "open".equals(spec.mode())
+                ? runOpenLoop(spec, request, stats, start)
+                : runClosedLoop(spec, request, stats, start);
+        long elapsedNanos = System.nanoTime() - start;
+        
+        Map<String, Object> result = summarize(spec, stats, elapsedNanos);
+        result.put("interrupted", interrupted);
+        logger.warn("Load generation finished - {} requests, {} errors, {} req/s, p99 {} ms",
+                result.get("completed"), result.get("errors"), result.get("throughputPerSecond"),
+                ((Map<?, ?>) result.get("latencyMs")).get("p99"));
+        return result;
+    }
+    
+    private boolean runOpenLoop(LoadSpec spec, HttpRequest request, Stats stats, long start) {
+        long intervalNanos = 1_000_000_000L / spec.rate();
+        long end = start + spec.seconds() * 1_000_000_000L;
+        Semaphore slots = new Semaphore(spec.concurrency());
+        boolean interrupted = false;
+        try {
+            for (long i = 0; ; i++) {
+                long intended = start + i * intervalNanos;
+                if (intended >= end) {
+                    break;
+                }
+                long wait;
+                while ((wait = intended - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                // Waiting for a slot delays the send, but latency is still measured from 'intended'
+                slots.acquire();
+                stats.maxSendLagNanos.accumulateAndGet(System.nanoTime() - intended, Math::max);
+                stats.sent.increment();
+                httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                        .whenComplete((response, failure) -> {
+                            stats.record(intended, response, failure);
+                            slots.release();
+                        });
+            }
+            // All slots free again means every in-flight request has completed
+            if (!slots.tryAcquire(spec.concurrency(), 30, TimeUnit.SECONDS)) {
+                logger.warn("Load generation ended with requests still in flight");
+            }
+        } catch (InterruptedException e) {
+            interrupted = true;
+            Thread.currentThread().interrupt();
+        }
+        return interrupted;
+    }
+    
+    private boolean runClosedLoop(LoadSpec spec, HttpRequest request, Stats stats, long start) {
+        long end = start + spec.seconds() * 1_000_000_000L;
+        // With a rate, each worker is paced at concurrency/rate seconds per request
+        long intervalNanos = spec.rate() > 0 ? 1_000_000_000L * spec.concurrency() / spec.rate() : 0L;
+        boolean interrupted = false;
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int w = 0; w < spec.concurrency(); w++) {
+                workers.submit(() -> {
+                    long intended = System.nanoTime();
+                    while (intended < end && !Thread.currentThread().isInterrupted()) {
+                        long wait;
+                        while ((wait = intended - System.nanoTime()) > 0) {
+                            LockSupport.parkNanos(wait);
+                        }
+                        long measuredFrom = intervalNanos > 0 ? intended : System.nanoTime();
+                        stats.sent.increment();
+                        try {
+                            stats.record(measuredFrom, httpClient.send(request, HttpResponse.BodyHandlers.discarding()), null);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        } catch (Exception e) {
+                            stats.record(measuredFrom, null, e);
+                        }
+                        intended = intervalNanos > 0 ? intended + intervalNanos : System.nanoTime();
+                    }
+                });
+            }
+            workers.shutdown();
+            interrupted = !workers.awaitTermination(spec.seconds() + 60L, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            interrupted = true;
+            Thread.currentThread().interrupt();
+        }
+        return interrupted;
+    }
+    
+    private HttpRequest buildRequest(LoadSpec spec) {
+        String method = spec.method() == null ? "GET" : spec.method().toUpperCase();
+        HttpRequest.BodyPublisher body = spec.body() == null || spec.body().isEmpty()
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(spec.body());
+        return HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:" + serverPort + spec.path()))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .method(method, body)
+                .build();
+    }
+    
+    private static Map<String, Object> summarize(LoadSpec spec, Stats stats, long elapsedNanos) {
+        double elapsedSeconds = elapsedNanos / 1_000_000_000.0d;
+        Histogram histogram = stats.latencyMicros;
+        
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("min", histogram.getMinValue() / 1000.0d);
+        latency.put("mean", Math.round(histogram.getMean()) / 1000.0d);
+        latency.put("p50", histogram.getValueAtPercentile(50.0) / 1000.0d);
+        latency.put("p90", histogram.getValueAtPercentile(90.0) / 1000.0d);
+        latency.put("p99", histogram.getValueAtPercentile(99.0) / 1000.0d);
+        latency.put("p999", histogram.getValueAtPercentile(99.9) / 1000.0d);
+        latency.put("max", histogram.getMaxValue() / 1000.0d);
+        
+        Map<String, Long> statusCodes = new TreeMap<>();
+        stats.statusCodes.forEach((status, count) -> statusCodes.put(status, count.sum()));
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("target", spec.method() + " " + spec.path());
+        result.put("mode", spec.mode());
+        result.put("concurrency", spec.concurrency());
+        result.put("targetRatePerSecond", spec.rate());
+        result.put("durationSeconds", Math.round(elapsedSeconds * 10) / 10.0d);
+        result.put("sent", stats.sent.sum());
+        result.put("completed", stats.completed.sum());
+        result.put("errors", stats.errors.sum());
+        result.put("statusCodes", statusCodes);
+        result.put("throughputPerSecond", Math.round(stats.completed.sum() / elapsedSeconds));
+        result.put("maxSendLagMs", stats.maxSendLagNanos.get() / 1_000_000.0d);
+        result.put("latencyMs", latency);
+        result.put("latencyMeasuredFrom", "open".equals(spec.mode()) || spec.rate() > 0 ? "intended-send-time" : "actual-send-time");
+        return result;
+    }
+}
@@ -0,0 +1,256 @@
+package com.k8sloverskorea.testspringbootapp.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Instrumented lock set behind the block-thread scenario.
+ * <p>
+ * Mode {@code unfair} (default) and {@code fair} use a single {@link ReentrantLock}; {@code striped}
+ * spreads callers over several locks by key. Wait and hold times are recorded as timers (with
+ * percentile histograms) and acquisitions and queue depth are tracked over a sliding window of
+ * {@code app.scenarios.lock.window}, for metrics and the /api/test/lock-stats summary. The
+ * {@code synchronized} variant is timed through {@link #runSynchronized(Object, Runnable)}.
+ */
+@Component
+public class LockContentionProfiler {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LockContentionProfiler.class);
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.scenarios.lock.mode:unfair}")
+    private String initialMode;
+    
+    @Value("${app.scenarios.lock.stripes:4}")
+    private int initialStripes;
+    
+    @Value("${app.scenarios.lock.window:60s}")
+    private Duration window;
+    
+    private record LockSet(String mode, ReentrantLock[] locks) {
+    }
+    
+    public record Acquisition(ReentrantLock lock, int stripe, long acquiredNanos) {
+    }
+    
+    private volatile LockSet lockSet;
+    private SlidingWindow slidingWindow;
+    private Timer reentrantWait;
+    private Timer reentrantHold;
+    private Timer synchronizedWait;
+    private Timer synchronizedHold;
+    
+    @PostConstruct
+    void init() {
+        slidingWindow = new SlidingWindow((int) Math.max(1, window.toSeconds()));
+        reentrantWait = lockTimer("scenario.lock.wait", "reentrant", "Time spent waiting to acquire the scenario lock");
+        reentrantHold = lockTimer("scenario.lock.hold", "reentrant", "Time the scenario lock was held");
+        synchronizedWait = lockTimer("scenario.lock.wait", "synchronized", "Time spent waiting to acquire the scenario lock");
+        synchronizedHold = lockTimer("scenario.lock.hold", "synchronized", "Time the scenario lock was held");
+        Gauge.builder("scenario.lock.queue.depth", this, LockContentionProfiler::currentQueueLength)
+                .description("Threads currently queued on the scenario lock(s)")
+                .register(meterRegistry);
+        Gauge.builder("scenario.lock.queue.depth.max", slidingWindow, SlidingWindow::maxDepth)
+                .description("Maximum queue depth observed within the sliding window")
+                .register(meterRegistry);
+        Gauge.builder("scenario.lock.acquisition.rate", slidingWindow, SlidingWindow::ratePerSecond)
+                .description("Lock acquisitions per second over the sliding window")
+                .register(meterRegistry);
+        configure(initialMode, initialStripes);
+    }
+    
+    private Timer lockTimer(String name, String lockType, String description) {
+        return Timer.builder(name)
+                .tag("lock", lockType)
+                .description(description)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .distributionStatisticExpiry(window)
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Replaces the lock set. Threads already holding or waiting on the previous locks finish on them.
+     */
+    public synchronized void configure(String mode, int stripes) {
+        String normalized = mode == null ? "unfair" : mode.toLowerCase();
+        ReentrantLock[] locks;
+        switch (normalized) {
+            case "fair" -> locks = new ReentrantLock[] { new ReentrantLock(true) };
+            case "striped" -> {
+                locks = new ReentrantLock[Math.max(1, stripes)];
+                for (int i = 0; i < locks.length; i++) {
+                    locks[i] = new ReentrantLock();
+                }
+            }
+            case "unfair" -> locks = new ReentrantLock[] { new ReentrantLock() };
+            default -> throw new IllegalArgumentException("mode must be one of unfair, fair, striped");
+        }
+        lockSet = new LockSet(normalized, locks);
+        logger.info("Scenario lock configured: mode={}, locks={}", normalized, locks.length);
+    }
+    
+    public Acquisition lock(String key) {
+        LockSet set = lockSet;
+        int stripe = set.locks().length == 1 ? 0 : Math.floorMod(key.hashCode(), set.locks().length);
+        ReentrantLock lock = set.locks()[stripe];
+        long start = System.nanoTime();
+        // Depth seen by this caller: queued waiters plus the current holder
+        slidingWindow.recordDepth(lock.getQueueLength() + (lock.isLocked() ? 1 : 0));
+        lock.lock();
+        long acquired = System.nanoTime();
+        reentrantWait.record(acquired - start, TimeUnit.NANOSECONDS);
+        slidingWindow.recordAcquisition();
+        return new Acquisition(lock, stripe, acquired);
+    }
+    
+    public void unlock(Acquisition acquisition) {
+        reentrantHold.record(System.nanoTime() - acquisition.acquiredNanos(), TimeUnit.NANOSECONDS);
+        acquisition.lock().unlock();
+    }
+    
+    public void runSynchronized(Object monitor, Runnable body) {
+        long start = System.nanoTime();
+        synchronized (monitor) {
+            long acquired = System.nanoTime();
+            synchronizedWait.record(acquired - start, TimeUnit.NANOSECONDS);
+            slidingWindow.recordAcquisition();
+            try {
+                body.run();
+            } finally {
+                synchronizedHold.record(System.nanoTime() - acquired, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+    
+    public String mode() {
+        return lockSet.mode();
+    }
+    
+    public boolean isLocked() {
+        for (ReentrantLock lock : lockSet.locks()) {
+            if (lock.isLocked()) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    public int currentQueueLength() {
+        int total = 0;
+        for (ReentrantLock lock : lockSet.locks()) {
+            total += lock.getQueueLength();
+        }
+        return total;
+    }
+    
+    public Map<String, Object> summary() {
+        LockSet set = lockSet;
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("mode", set.mode());
+        summary.put("locks", set.locks().length);
+        summary.put("window", window.toString());
+        summary.put("acquisitionsInWindow", slidingWindow.count());
+        summary.put("acquisitionRatePerSecond", slidingWindow.ratePerSecond());
+        summary.put("maxQueueDepthInWindow", slidingWindow.maxDepth());
+        summary.put("currentQueueLength", currentQueueLength());
+        summary.put("lockHeld", isLocked());
+        summary.put("reentrantWait", timerSummary(reentrantWait));
+        summary.put("reentrantHold", timerSummary(reentrantHold));
+        summary.put("synchronizedWait", timerSummary(synchronizedWait));
+        summary.put("synchronizedHold", timerSummary(synchronizedHold));
+        return summary;
+    }
+    
+    private static Map<String, Object> timerSummary(Timer timer) {
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", snapshot.count());
+        summary.put("meanMs", snapshot.mean(TimeUnit.MILLISECONDS));
+        summary.put("maxMs", snapshot.max(TimeUnit.MILLISECONDS));
+        for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+            summary.put("p" + Math.round(percentile.percentile() * 100) + "Ms", percentile.value(TimeUnit.MILLISECONDS));
+        }
+        return summary;
+    }
+    
+    /**
+     * Per-second buckets of acquisition counts and maximum queue depth.
+     */
+    private static final class SlidingWindow {
+        
+        private final int seconds;
+        private final long[] epochs;
+        private final long[] counts;
+        private final long[] maxDepths;
+        
+        SlidingWindow(int seconds) {
+            this.seconds = seconds;
+            this.epochs = new long[seconds];
+            this.counts = new long[seconds];
+            this.maxDepths = new long[seconds];
+        }
+        
+        private int bucket(long epochSecond) {
+            int index = (int) (epochSecond % seconds);
+            if (epochs[index] != epochSecond) {
+                epochs[index] = epochSecond;
+                counts[index] = 0;
+                maxDepths[index] = 0;
+            }
+            return index;
+        }
+        
+        synchronized void recordAcquisition() {
+            counts[bucket(System.currentTimeMillis() / 1000)]++;
+        }
+        
+        synchronized void recordDepth(int depth) {
+            int index = bucket(System.currentTimeMillis() / 1000);
+            maxDepths[index] = Math.max(maxDepths[index], depth);
+        }
+        
+        synchronized long count() {
+            long now = System.currentTimeMillis() / 1000;
+            long total = 0;
+            for (int i = 0; i < seconds; i++) {
+                if (now - epochs[i] < seconds) {
+                    total += counts[i];
+                }
+            }
+            return total;
+        }
+        
+        synchronized long maxDepth() {
+            long now = System.currentTimeMillis() / 1000;
+            long max = 0;
+            for (int i = 0; i < seconds; i++) {
+                if (now - epochs[i] < seconds) {
+                    max = Math.max(max, maxDepths[i]);
+                }
+            }
+            return max;
+        }
+        
+        double ratePerSecond() {
+            return (double) count() / seconds;
+        }
+    }
+}
@@ -2,7 +2,6 @@ package com.k8sloverskorea.testspringbootapp.service;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
@@ -17,9 +16,6 @@ public class LoggingService {
     
     private final AtomicLong counter = new AtomicLong(0);
     
-    @Autowired
-    private TestEntityService entityService;
-    
     @Value("${app.logging.scheduled.enabled:true}")
     private boolean scheduledLoggingEnabled;
     
@@ -29,40 +25,8 @@ public class LoggingService {
             return;
         }
         long count = counter.incrementAndGet();
-        logger.info("Application heartbeat #{} - timestamp: {} - active threads: {}", 
-                   count, Instant.now(), Thread.activeCount());
-    }
-    
-    @Scheduled(fixedRate = 60000) // Every minute
-    public void systemStatusLog() {
-        if (!scheduledLoggingEnabled) {
-            return;
-        }
-        Runtime runtime = Runtime.getRuntime();
-        long totalMemory = runtime.totalMemory();
-        long freeMemory = runtime.freeMemory();
-        long usedMemory = totalMemory - freeMemory;
-        long maxMemory = runtime.maxMemory();
-        
-        logger.info("System Status - Memory: {}/{} MB used, Max: {} MB, Free: {} MB, Active Threads: {}", 
-                   usedMemory / 1024 / 1024,
-                   totalMemory / 1024 / 1024,
-                   maxMemory / 1024 / 1024,
-                   freeMemory / 1024 / 1024,
-                   Thread.activeCount());
-    }
-    
-    @Scheduled(fixedRate = 120000) // Every 2 minutes
-    public void databaseStatusLog() {
-        if (!scheduledLoggingEnabled) {
-            return;
-        }
-        try {
-            int entityCount = entityService.getAllEntities().size();
-            logger.info("Database Status - Total entities in memory: {}", entityCount);
-        } catch (Exception e) {
-            logger.error("Failed to get database status", e);
-        }
+        // Memory and thread figures are published as metrics by RuntimeMetrics (/actuator/runtime)
+        logger.info("Application heartbeat #{} - timestamp: {}", count, Instant.now());
     }
     
     @Scheduled(fixedRate = 300000) // Every 5 minutes
@@ -0,0 +1,444 @@
+package com.k8sloverskorea.testspringbootapp.service;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Memory stress scenarios for tuning heap/GC settings and validating memory-based autoscaling:
+ * retaining heap, allocating short-lived garbage at a target rate, and holding direct buffers.
+ * <p>
+ * Each run reports the GC activity it observed (per collector: count, total and longest duration,
+ * from GC notifications) and heap occupancy (peak used, and the lowest/last heap left after a GC,
+ * which approximates the live set). Runs stop early when their thread is interrupted, which is how
+ * {@link ScenarioJobService#cancel(String)} cancels them, and always drop what they allocated.
+ * Retained heap is capped at {@code app.scenarios.memory.max-heap-fraction} of the max heap across
+ * all concurrent runs, and direct buffers at {@code app.scenarios.memory.max-direct} across all
+ * concurrent runs, so the scenarios stress the collector without taking the pod down.
+ */
+@Service
+public class MemoryPressureService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MemoryPressureService.class);
+
+    private static final int PAGE_SIZE = 4096;
+    private static final long MB = 1024L * 1024L;
+    // Churn is paced in slices of this length
+    private static final long SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Value("${app.scenarios.memory.max-heap-fraction:0.8}")
+    private double maxHeapFraction;
+
+    @Value("${app.scenarios.memory.max-direct:256MB}")
+    private DataSize maxDirect;
+
+    @Value("${app.scenarios.memory.max-seconds:600}")
+    private int maxSeconds;
+
+    @Value("${app.scenarios.memory.max-churn-rate:2048}")
+    private int maxChurnMbPerSecond;
+
+    private final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+
+    // Keeps churned objects observable so the JIT cannot drop the allocations
+    private volatile long sink;
+
+    // Heap granted to running retain-heap runs, and how much of it they have allocated so far
+    private final AtomicLong reservedHeap = new AtomicLong();
+    private final AtomicLong retainedHeap = new AtomicLong();
+    // Direct memory granted to running direct-buffer runs
+    private final AtomicLong reservedDirect = new AtomicLong();
+
+    /**
+     * Fails with {@link IllegalArgumentException} for parameters the scenarios would reject, so the
+     * caller can answer 400 before submitting a job.
+     */
+    public void validate(long megabytes, int seconds, int chunkKilobytes) {
+        if (megabytes <= 0) {
+            throw new IllegalArgumentException("megabytes must be positive");
+        }
+        if (seconds <= 0 || seconds > maxSeconds) {
+            throw new IllegalArgumentException("seconds must be between 1 and " + maxSeconds);
+        }
+        if (chunkKilobytes <= 0 || chunkKilobytes > 64 * 1024) {
+            throw new IllegalArgumentException("chunk size must be between 1 KB and 64 MB");
+        }
+    }
+
+    /** Same as {@link #validate(long, int, int)}, for {@link #churn(int, int, int)}. */
+    public void validateChurn(int mbPerSecond, int seconds, int objectBytes) {
+        if (mbPerSecond <= 0 || mbPerSecond > maxChurnMbPerSecond) {
+            throw new IllegalArgumentException("mbPerSecond must be between 1 and " + maxChurnMbPerSecond);
+        }
+        if (objectBytes <= 0 || objectBytes > 16 * MB) {
+            throw new IllegalArgumentException("objectBytes must be between 1 and " + 16 * MB);
+        }
+        if (seconds <= 0 || seconds > maxSeconds) {
+            throw new IllegalArgumentException("seconds must be between 1 and " + maxSeconds);
+        }
+    }
+
+    /**
+     * Allocates up to {@code megabytes} of heap in {@code chunkKilobytes} arrays, touches every page and
+     * holds it for {@code seconds}. The amount is reduced to what fits under the heap cap, after the
+     * heap in use and what concurrent runs have reserved but not yet allocated.
+     */
+    public Map<String, Object> retainHeap(long megabytes, int seconds, int chunkKilobytes) {
+        validate(megabytes, seconds, chunkKilobytes);
+        long maxHeap = memoryBean.getHeapMemoryUsage().getMax();
+        long cap = maxHeap > 0 ? (long) (maxHeap * maxHeapFraction) : Long.MAX_VALUE;
+        long requested = megabytes * MB;
+        long allowed = reserveHeap(requested, cap);
+        int chunkBytes = chunkKilobytes * 1024;
+        logger.warn("Memory scenario retain-heap: retaining {} MB (requested {} MB) for {}s in {} KB chunks",
+                allowed / MB, megabytes, seconds, chunkKilobytes);
+
+        GcObserver observer = new GcObserver();
+        List<byte[]> retained = new ArrayList<>();
+        long retainedBytes = 0;
+        String outcome = "completed";
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        try {
+            while (retainedBytes < allowed) {
+                if (Thread.currentThread().isInterrupted()) {
+                    outcome = "cancelled";
+                    break;
+                }
+                byte[] chunk = new byte[(int) Math.min(chunkBytes, allowed - retainedBytes)];
+                // Write every page so the memory is resident, not just reserved
+                for (int i = 0; i < chunk.length; i += PAGE_SIZE) {
+                    chunk[i] = 1;
+                }
+                retained.add(chunk);
+                retainedBytes += chunk.length;
+                retainedHeap.addAndGet(chunk.length);
+                observer.sampleHeap();
+            }
+            if (!"cancelled".equals(outcome)) {
+                outcome = holdUntil(deadline, observer);
+            }
+        } catch (OutOfMemoryError e) {
+            // Only our own allocation can fail here; dropping the list frees what we took
+            retained = null;
+            outcome = "out-of-memory";
+            logger.error("Memory scenario retain-heap hit OutOfMemoryError after {} MB", retainedBytes / MB);
+        } finally {
+            // Released before reporting so the final heap numbers do not include it
+            retained = null;
+            retainedHeap.addAndGet(-retainedBytes);
+            reservedHeap.addAndGet(-allowed);
+            observer.close();
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("scenario", "retain-heap");
+        result.put("outcome", outcome);
+        result.put("requestedMb", megabytes);
+        result.put("retainedMb", retainedBytes / MB);
+        result.put("clamped", allowed < requested);
+        result.put("heapCapMb", cap == Long.MAX_VALUE ? -1 : cap / MB);
+        result.putAll(observer.report());
+        logger.info("Memory scenario retain-heap {} - retained {} MB", outcome, retainedBytes / MB);
+        return result;
+    }
+
+    /**
+     * Allocates short-lived {@code objectBytes} arrays at {@code mbPerSecond} for {@code seconds},
+     * paced in 10 ms slices. Reports the achieved rate, which falls short of the target once the
+     * allocator or collector becomes the bottleneck.
+     */
+    public Map<String, Object> churn(int mbPerSecond, int seconds, int objectBytes) {
+        validateChurn(mbPerSecond, seconds, objectBytes);
+        logger.warn("Memory scenario churn: {} MB/s of {}-byte objects for {}s", mbPerSecond, objectBytes, seconds);
+
+        GcObserver observer = new GcObserver();
+        double bytesPerNano = mbPerSecond * (double) MB / TimeUnit.SECONDS.toNanos(1);
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(seconds);
+        long allocated = 0;
+        long local = 0;
+        String outcome = "completed";
+        try {
+            long now;
+            while ((now = System.nanoTime()) < deadline) {
+                if (Thread.currentThread().isInterrupted()) {
+                    outcome = "cancelled";
+                    break;
+                }
+                // Catch up to the schedule, then sleep out the rest of the slice
+                long due = (long) ((now - start + SLICE_NANOS) * bytesPerNano);
+                while (allocated < due && !Thread.currentThread().isInterrupted()) {
+                    byte[] garbage = new byte[objectBytes];
+                    garbage[0] = (byte) allocated;
+                    local += garbage[garbage.length - 1] + garbage[0];
+                    allocated += objectBytes;
+                }
+                observer.sampleHeap();
+                LockSupport.parkNanos(Math.min(SLICE_NANOS, deadline - System.nanoTime()));
+            }
+        } finally {
+            sink = local;
+            observer.close();
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("scenario", "churn");
+        result.put("outcome", outcome);
+        result.put("targetMbPerSecond", mbPerSecond);
+        result.put("achievedMbPerSecond", Math.round(allocated / (double) MB / elapsedSeconds));
+        result.put("allocatedMb", allocated / MB);
+        result.put("objectBytes", objectBytes);
+        result.put("elapsedSeconds", Math.round(elapsedSeconds * 10) / 10.0);
+        result.putAll(observer.report());
+        logger.info("Memory scenario churn {} - {} MB allocated in {}s", outcome, allocated / MB, result.get("elapsedSeconds"));
+        return result;
+    }
+
+    /**
+     * Allocates up to {@code megabytes} of direct {@link ByteBuffer}s (bounded by what is left of
+     * {@code app.scenarios.memory.max-direct} after concurrent runs, and by {@code -XX:MaxDirectMemorySize}), touches every page
+     * and holds them for {@code seconds}. Direct memory counts against the container limit but not the
+     * heap. It is returned when the buffers are collected, not when the scenario ends.
+     */
+    public Map<String, Object> retainDirect(long megabytes, int seconds, int chunkKilobytes) {
+        validate(megabytes, seconds, chunkKilobytes);
+        long requested = megabytes * MB;
+        long allowed = reserveDirect(requested);
+        int chunkBytes = chunkKilobytes * 1024;
+        logger.warn("Memory scenario direct: retaining {} MB of direct buffers (requested {} MB) for {}s",
+                allowed / MB, megabytes, seconds);
+
+        GcObserver observer = new GcObserver();
+        long directBefore = directMemoryUsed();
+        List<ByteBuffer> buffers = new ArrayList<>();
+        long retainedBytes = 0;
+        String outcome = "completed";
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        long directPeak = directBefore;
+        try {
+            while (retainedBytes < allowed) {
+                if (Thread.currentThread().isInterrupted()) {
+                    outcome = "cancelled";
+                    break;
+                }
+                ByteBuffer buffer = ByteBuffer.allocateDirect((int) Math.min(chunkBytes, allowed - retainedBytes));
+                for (int i = 0; i < buffer.capacity(); i += PAGE_SIZE) {
+                    buffer.put(i, (byte) 1);
+                }
+                buffers.add(buffer);
+                retainedBytes += buffer.capacity();
+            }
+            directPeak = directMemoryUsed();
+            if (!"cancelled".equals(outcome)) {
+                outcome = holdUntil(deadline, observer);
+            }
+        } catch (OutOfMemoryError e) {
+            // "Direct buffer memory": MaxDirectMemorySize reached
+            buffers = null;
+            outcome = "out-of-memory";
+            logger.error("Memory scenario direct hit OutOfMemoryError after {} MB: {}", retainedBytes / MB, e.getMessage());
+        } finally {
+            // Unreachable now; the native memory is freed when the buffers are collected
+            buffers = null;
+            reservedDirect.addAndGet(-allowed);
+            observer.close();
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("scenario", "direct");
+        result.put("outcome", outcome);
+        result.put("requestedMb", megabytes);
+        result.put("retainedMb", retainedBytes / MB);
+        result.put("clamped", allowed < requested);
+        result.put("directUsedBeforeMb", directBefore / MB);
+        result.put("directUsedPeakMb", directPeak / MB);
+        result.put("directUsedAfterMb", directMemoryUsed() / MB);
+        result.putAll(observer.report());
+        logger.info("Memory scenario direct {} - retained {} MB", outcome, retainedBytes / MB);
+        return result;
+    }
+
+    // Grants up to requested bytes under cap; other runs' allocated heap is already in the used figure
+    private long reserveHeap(long requested, long cap) {
+        while (true) {
+            long reserved = reservedHeap.get();
+            long unallocated = Math.max(0, reserved - retainedHeap.get());
+            long free = cap - memoryBean.getHeapMemoryUsage().getUsed() - unallocated;
+            long granted = Math.max(0, Math.min(requested, free));
+            if (reservedHeap.compareAndSet(reserved, reserved + granted)) {
+                return granted;
+            }
+        }
+    }
+
+    private long reserveDirect(long requested) {
+        while (true) {
+            long reserved = reservedDirect.get();
+            long granted = Math.max(0, Math.min(requested, maxDirect.toBytes() - reserved));
+            if (reservedDirect.compareAndSet(reserved, reserved + granted)) {
+                return granted;
+            }
+        }
+    }
+
+    // Sleeps in short steps until the deadline, sampling heap; returns the outcome
+    private String holdUntil(long deadline, GcObserver observer) {
+        while (System.nanoTime() < deadline) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(Math.min(TimeUnit.MILLISECONDS.toNanos(200), deadline - System.nanoTime()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return "cancelled";
+            }
+            observer.sampleHeap();
+        }
+        return "completed";
+    }
+
+    private static long directMemoryUsed() {
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if ("direct".equals(pool.getName())) {
+                return pool.getMemoryUsed();
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * GC activity and heap occupancy between construction and {@link #close()}. GC events arrive on a
+     * JMX notification thread, so the counters are updated under this object's lock.
+     */
+    private final class GcObserver implements NotificationListener {
+
+        private final Map<String, long[]> collectors = new LinkedHashMap<>(); // name -> {count, totalMs, maxMs}
+        private final List<NotificationEmitter> emitters = new ArrayList<>();
+        private final long startNanos = System.nanoTime();
+        private final Set<String> heapPools = new HashSet<>();
+        private long peakHeapUsed;
+        private long minHeapAfterGc = Long.MAX_VALUE;
+        private long lastHeapAfterGc = -1;
+
+        GcObserver() {
+            sampleHeap();
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) {
+                    heapPools.add(pool.getName());
+                }
+            }
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                if (gc instanceof NotificationEmitter emitter) {
+                    emitter.addNotificationListener(this, null, null);
+                    emitters.add(emitter);
+                }
+            }
+        }
+
+        synchronized void sampleHeap() {
+            peakHeapUsed = Math.max(peakHeapUsed, memoryBean.getHeapMemoryUsage().getUsed());
+        }
+
+        @Override
+        public void handleNotification(Notification notification, Object handback) {
+            if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                return;
+            }
+            GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+            long durationMs = info.getGcInfo().getDuration();
+            long heapBefore = heapUsed(info.getGcInfo().getMemoryUsageBeforeGc());
+            long heapAfter = heapUsed(info.getGcInfo().getMemoryUsageAfterGc());
+            synchronized (this) {
+                long[] stats = collectors.computeIfAbsent(info.getGcName(), name -> new long[3]);
+                stats[0]++;
+                stats[1] += durationMs;
+                stats[2] = Math.max(stats[2], durationMs);
+                peakHeapUsed = Math.max(peakHeapUsed, heapBefore);
+                minHeapAfterGc = Math.min(minHeapAfterGc, heapAfter);
+                lastHeapAfterGc = heapAfter;
+            }
+        }
+
+        private long heapUsed(Map<String, MemoryUsage> pools) {
+            long used = 0;
+            for (Map.Entry<String, MemoryUsage> pool : pools.entrySet()) {
+                if (heapPools.contains(pool.getKey())) {
+                    used += pool.getValue().getUsed();
+                }
+            }
+            return used;
+        }
+
+        void close() {
+            for (NotificationEmitter emitter : emitters) {
+                try {
+                    emitter.removeNotificationListener(this);
+                } catch (Exception e) {
+                    logger.debug("Could not remove GC listener: {}", e.toString());
+                }
+            }
+            sampleHeap();
+        }
+
+        // Concurrent collectors report cycles that mostly run alongside the application, not pauses
+        private boolean isConcurrentCycle(String collector) {
+            return collector.contains("Concurrent") || collector.endsWith("Cycles");
+        }
+
+        synchronized Map<String, Object> report() {
+            double elapsedSeconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+            Map<String, Object> gc = new LinkedHashMap<>();
+            long pauseMs = 0;
+            for (Map.Entry<String, long[]> entry : collectors.entrySet()) {
+                long[] stats = entry.getValue();
+                Map<String, Object> collector = new LinkedHashMap<>();
+                collector.put("count", stats[0]);
+                collector.put("totalMs", stats[1]);
+                collector.put("maxMs", stats[2]);
+                gc.put(entry.getKey(), collector);
+                if (!isConcurrentCycle(entry.getKey())) {
+                    pauseMs += stats[1];
+                }
+            }
+            MemoryUsage heap = memoryBean.getHeapMemoryUsage();
+            Map<String, Object> heapReport = new LinkedHashMap<>();
+            heapReport.put("maxMb", heap.getMax() / MB);
+            heapReport.put("committedMb", heap.getCommitted() / MB);
+            heapReport.put("usedNowMb", heap.getUsed() / MB);
+            heapReport.put("peakUsedMb", peakHeapUsed / MB);
+            heapReport.put("minAfterGcMb", minHeapAfterGc == Long.MAX_VALUE ? -1 : minHeapAfterGc / MB);
+            heapReport.put("lastAfterGcMb", lastHeapAfterGc < 0 ? -1 : lastHeapAfterGc / MB);
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            // Durations are pauses for stop-the-world collectors and whole cycles for concurrent ones
+            report.put("gc", gc);
+            report.put("gcPauseTimePercent", elapsedSeconds > 0 ? Math.round(pauseMs / elapsedSeconds) / 10.0 : 0.0);
+            report.put("heap", heapReport);
+            return report;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.k8sloverskorea.testspringbootapp.service;
+
+import com.k8sloverskorea.testspringbootapp.model.ScenarioJob;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs heavy test scenarios on a dedicated bounded executor so they never occupy a Tomcat
+ * request thread. Jobs are tracked by id for polling; a full queue rejects new jobs and counts
+ * them in {@code scenario.jobs.rejected}.
+ * <p>
+ * The executor is deliberately not a Spring {@code Executor} bean, which would replace Boot's
+ * {@code applicationTaskExecutor} used for MVC async requests.
+ */
+@Service
+public class ScenarioJobService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ScenarioJobService.class);
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.scenarios.executor.pool-size:4}")
+    private int poolSize;
+    
+    @Value("${app.scenarios.executor.queue-capacity:16}")
+    private int queueCapacity;
+    
+    @Value("${app.scenarios.jobs.retention:100}")
+    private int retention;
+    
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+    
+    private ThreadPoolExecutor executor;
+    private Counter rejectedCounter;
+    private Map<String, ScenarioJob> jobs;
+    
+    @PostConstruct
+    void init() {
+        ThreadFactory threadFactory = virtualThreadsEnabled
+                ? Thread.ofVirtual().name("scenario-", 0).factory()
+                : namedPlatformThreads("scenario-");
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "scenario");
+        rejectedCounter = Counter.builder("scenario.jobs.rejected")
+                .description("Scenario jobs rejected because the scenario executor was saturated")
+                .register(meterRegistry);
+        // Keep only the most recent jobs so finished results do not accumulate
+        jobs = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ScenarioJob> eldest) {
+                return size() > retention;
+            }
+        };
+        logger.info("Scenario executor started (poolSize={}, queueCapacity={}, virtual={})", poolSize, queueCapacity, virtualThreadsEnabled);
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    /**
+     * Queues {@code work} on the scenario executor.
+     *
+     * @throws RejectedExecutionException when the executor and its queue are full
+     */
+    public ScenarioJob submit(String type, Map<String, Object> parameters, Supplier<Map<String, ?>> work) {
+        ScenarioJob job = new ScenarioJob(UUID.randomUUID().toString(), type, parameters);
+        try {
+            job.setFuture(executor.submit(() -> run(job, work)));
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            logger.warn("Scenario job {} rejected - executor saturated (active={}, queued={})",
+                    type, executor.getActiveCount(), executor.getQueue().size());
+            throw e;
+        }
+        synchronized (jobs) {
+            jobs.put(job.getId(), job);
+        }
+        logger.info("Submitted scenario job {} ({}) with {}", job.getId(), type, parameters);
+        return job;
+    }
+    
+    public Optional<ScenarioJob> getJob(String id) {
+        synchronized (jobs) {
+            return Optional.ofNullable(jobs.get(id));
+        }
+    }
+    
+    public List<ScenarioJob> getJobs() {
+        synchronized (jobs) {
+            return new ArrayList<>(jobs.values());
+        }
+    }
+    
+    public Optional<ScenarioJob> cancel(String id) {
+        Optional<ScenarioJob> job = getJob(id);
+        job.ifPresent(j -> {
+            // Only interrupt the worker if this request won the transition
+            if (j.markCancelled()) {
+                j.getFuture().cancel(true);
+                logger.info("Cancelled scenario job {} ({})", j.getId(), j.getType());
+            }
+        });
+        return job;
+    }
+    
+    public Map<String, Object> executorStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("poolSize", poolSize);
+        status.put("activeCount", executor.getActiveCount());
+        status.put("queued", executor.getQueue().size());
+        status.put("queueCapacity", queueCapacity);
+        status.put("completedTasks", executor.getCompletedTaskCount());
+        status.put("rejected", (long) rejectedCounter.count());
+        return status;
+    }
+    
+    private void run(ScenarioJob job, Supplier<Map<String, ?>> work) {
+        if (!job.markRunning()) {
+            return;
+        }
+        try {
+            job.setResult(work.get());
+            if (!job.markCompleted()) {
+                logger.debug("Scenario job {} ({}) finished after it was cancelled", job.getId(), job.getType());
+            }
+        } catch (Exception e) {
+            if (job.markFailed(e.toString())) {
+                logger.error("Scenario job {} ({}) failed", job.getId(), job.getType(), e);
+            } else {
+                logger.debug("Scenario job {} ({}) stopped after it was cancelled: {}", job.getId(), job.getType(), e.toString());
+            }
+        }
+    }
+    
+    private static ThreadFactory namedPlatformThreads(String prefix) {
+        AtomicInteger sequence = new AtomicInteger();
+        ThreadFactory defaults = Executors.defaultThreadFactory();
+        return runnable -> {
+            Thread thread = defaults.newThread(runnable);
+            thread.setName(prefix + sequence.getAndIncrement());
+            return thread;
+        };
+    }
+}
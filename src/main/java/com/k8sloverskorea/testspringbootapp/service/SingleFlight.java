@@ -0,0 +1,85 @@
+package com.k8sloverskorea.testspringbootapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical loads: the first caller for a key runs the loader, and callers that
+ * arrive while it is running wait for it and get the same result or exception. Nothing is kept once
+ * the load finishes, so this is not a cache. A caller can receive a result that was already being
+ * loaded when it arrived, which is no staler than a read that started a moment earlier.
+ * <p>
+ * Meters, tagged {@code operation}: {@code entity.reads.loads} (loader runs),
+ * {@code entity.reads.coalesced} (callers served by another caller's load) and
+ * {@code entity.reads.in.flight} (keys currently loading).
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final Counter loads;
+    private final Counter coalesced;
+
+    public SingleFlight(String operation, boolean enabled, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.loads = Counter.builder("entity.reads.loads")
+                .description("Read loads that went to the database (one per coalesced group)")
+                .tag("operation", operation)
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("entity.reads.coalesced")
+                .description("Reads answered by joining an identical load already in flight")
+                .tag("operation", operation)
+                .register(meterRegistry);
+        Gauge.builder("entity.reads.in.flight", inFlight, Map::size)
+                .description("Distinct keys currently being loaded")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        if (!enabled) {
+            loads.increment();
+            return loader.get();
+        }
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalesced.increment();
+            return join(existing);
+        }
+        loads.increment();
+        try {
+            V value = loader.get();
+            // Remove before completing so callers arriving after the result start a fresh load
+            inFlight.remove(key, mine);
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // Rethrow the leader's own exception so callers see the same failure either way
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
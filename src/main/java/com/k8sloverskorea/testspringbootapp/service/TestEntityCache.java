@@ -0,0 +1,185 @@
+package com.k8sloverskorea.testspringbootapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.k8sloverskorea.testspringbootapp.model.TestEntity;
+import com.k8sloverskorea.testspringbootapp.repository.TestEntityRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded read-through cache in front of {@link TestEntityRepository#findById}.
+ * <p>
+ * Entries expire after {@code app.entities.cache.ttl} and the cache never holds more than
+ * {@code app.entities.cache.max-size} entries. Writes on this replica invalidate entries directly;
+ * writes on other replicas are picked up by re-checking the entity {@code version} once an entry is
+ * older than {@code app.entities.cache.validate-after}, which bounds cross-replica staleness.
+ * <p>
+ * Stores are conditional: a newer cached version is never replaced by an older one, and an
+ * invalidation leaves a short-lived tombstone so a load that started before it cannot put the
+ * pre-commit row back.
+ */
+@Component
+public class TestEntityCache {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TestEntityCache.class);
+    
+    @Autowired
+    private TestEntityRepository repository;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.entities.cache.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${app.entities.cache.max-size:10000}")
+    private long maxSize;
+    
+    @Value("${app.entities.cache.ttl:10m}")
+    private Duration ttl;
+    
+    @Value("${app.entities.cache.validate-after:5s}")
+    private Duration validateAfter;
+    
+    private Cache<Long, CacheEntry> cache;
+    private Counter revalidatedFresh;
+    private Counter revalidatedStale;
+    private final AtomicLong invalidations = new AtomicLong();
+    
+    // entity is null for a tombstone; invalidation orders tombstones against loads in flight
+    private record CacheEntry(TestEntity entity, long cachedAtNanos, long invalidation) {
+        
+        boolean isTombstone() {
+            return entity == null;
+        }
+    }
+    
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<Long, CacheEntry>() {
+                    // Tombstones only need to outlive loads that were already running
+                    @Override
+                    public long expireAfterCreate(Long id, CacheEntry entry, long currentTime) {
+                        return (entry.isTombstone() ? validateAfter : ttl).toNanos();
+                    }
+                    
+                    @Override
+                    public long expireAfterUpdate(Long id, CacheEntry entry, long currentTime, long currentDuration) {
+                        return expireAfterCreate(id, entry, currentTime);
+                    }
+                    
+                    @Override
+                    public long expireAfterRead(Long id, CacheEntry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        // Publishes cache.gets{result=hit|miss}, cache.evictions, cache.size, ... tagged cache=entities
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "entities");
+        revalidatedFresh = Counter.builder("entity.cache.revalidations")
+                .tag("result", "fresh")
+                .description("Cached entities confirmed current by a version check")
+                .register(meterRegistry);
+        revalidatedStale = Counter.builder("entity.cache.revalidations")
+                .tag("result", "stale")
+                .description("Cached entities found outdated or deleted by a version check")
+                .register(meterRegistry);
+        logger.info("Entity cache {} (maxSize={}, ttl={}, validateAfter={})",
+                enabled ? "enabled" : "disabled", maxSize, ttl, validateAfter);
+    }
+    
+    public Optional<TestEntity> findById(Long id) {
+        if (!enabled) {
+            return repository.findById(id);
+        }
+        long loadStart = invalidations.get();
+        CacheEntry entry = cache.getIfPresent(id);
+        if (entry != null && !entry.isTombstone()) {
+            if (System.nanoTime() - entry.cachedAtNanos() < validateAfter.toNanos()) {
+                return Optional.of(entry.entity());
+            }
+            Optional<Long> current = repository.findVersionById(id);
+            if (current.isPresent() && Objects.equals(current.get(), entry.entity().getVersion())) {
+                revalidatedFresh.increment();
+                store(id, entry.entity(), loadStart);
+                return Optional.of(entry.entity());
+            }
+            revalidatedStale.increment();
+            cache.invalidate(id);
+            if (current.isEmpty()) {
+                return Optional.empty();
+            }
+        }
+        Optional<TestEntity> loaded = repository.findById(id);
+        loaded.ifPresent(entity -> store(id, entity.copy(), loadStart));
+        return loaded;
+    }
+    
+    // Keeps the higher version, and loses to any invalidation that happened after the load began
+    private void store(Long id, TestEntity entity, long loadStart) {
+        cache.asMap().compute(id, (key, existing) -> {
+            if (existing != null && (existing.isTombstone()
+                    ? existing.invalidation() > loadStart
+                    : version(existing.entity()) > version(entity))) {
+                return existing;
+            }
+            return new CacheEntry(entity, System.nanoTime(), 0);
+        });
+    }
+    
+    private static long version(TestEntity entity) {
+        return entity.getVersion() != null ? entity.getVersion() : -1;
+    }
+    
+    public void invalidate(Long id) {
+        invalidateAll(List.of(id));
+    }
+    
+    /**
+     * Drops the given ids now and, when called inside a transaction, again after commit so a
+     * concurrent reader cannot re-populate the cache with the pre-commit row.
+     */
+    public void invalidateAll(Collection<Long> ids) {
+        if (!enabled || ids.isEmpty()) {
+            return;
+        }
+        markInvalidated(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<Long> pending = List.copyOf(ids);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markInvalidated(pending);
+                }
+            });
+        }
+    }
+    
+    private void markInvalidated(Collection<Long> ids) {
+        CacheEntry tombstone = new CacheEntry(null, System.nanoTime(), invalidations.incrementAndGet());
+        for (Long id : ids) {
+            cache.put(id, tombstone);
+        }
+    }
+}
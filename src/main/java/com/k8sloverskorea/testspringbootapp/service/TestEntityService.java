@@ -1,16 +1,36 @@
 package com.k8sloverskorea.testspringbootapp.service;
 
+import com.k8sloverskorea.testspringbootapp.model.EntityPage;
+import com.k8sloverskorea.testspringbootapp.model.EntitySearchResult;
 import com.k8sloverskorea.testspringbootapp.model.TestEntity;
 import com.k8sloverskorea.testspringbootapp.repository.TestEntityRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.Tracer;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class TestEntityService {
@@ -23,13 +43,104 @@ public class TestEntityService {
     @Autowired
     private Tracer tracer;
     
-    public List<TestEntity> getAllEntities() {
+    @Autowired
+    private TestEntityCache entityCache;
+    
+    @Autowired
+    private EntityNameIndex nameIndex;
+    
+    @Autowired
+    private EntityCountTracker countTracker;
+    
+    @Autowired
+    private EntityWriteAheadLog writeAheadLog;
+    
+    @Autowired
+    private EntityChangeFeed changeFeed;
+    
+    @Autowired
+    private EntityWriteBuffer writeBuffer;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Value("${app.entities.page.max-size:1000}")
+    private int maxPageSize;
+    
+    @Value("${app.entities.batch.chunk-size:500}")
+    private int batchChunkSize;
+    
+    @Value("${app.entities.coalescing.enabled:true}")
+    private boolean coalescingEnabled;
+    
+    // Concurrent identical reads share one load (thundering herd on a hot id or search term)
+    private SingleFlight<Long, Optional<TestEntity>> entityLoads;
+    private SingleFlight<SearchKey, EntitySearchResult> searchLoads;
+    
+    private record SearchKey(String name, int offset, int limit) {
+    }
+    
+    @PostConstruct
+    void init() {
+        entityLoads = new SingleFlight<>("get-by-id", coalescingEnabled, meterRegistry);
+        searchLoads = new SingleFlight<>("search-by-name", coalescingEnabled, meterRegistry);
+    }
+    
+    /**
+     * The default listing: the first keyset page at {@code app.entities.page.max-size}, so an
+     * unparameterized call never loads the whole table. The rest is reachable through
+     * {@link #getEntityPage(Long, int)} or a stream.
+     */
+    public EntityPage getAllEntities() {
         Span span = tracer.spanBuilder("get-all-entities").startSpan();
         try {
-            logger.debug("Fetching all entities");
-            List<TestEntity> entities = repository.findAll();
-            logger.info("Retrieved {} entities", entities.size());
-            return entities;
+            logger.debug("Fetching first {} entities", maxPageSize);
+            return getEntityPage(null, maxPageSize);
+        } finally {
+            span.end();
+        }
+    }
+    
+    public EntityPage getEntityPage(Long afterId, int limit) {
+        Span span = tracer.spanBuilder("get-entity-page").startSpan();
+        try {
+            long cursor = afterId != null ? afterId : 0L;
+            int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+            logger.debug("Fetching entity page after id {} (limit {})", cursor, pageSize);
+            // Fetch one extra row to know whether another page exists without a COUNT query
+            List<TestEntity> rows = repository.findByIdGreaterThanOrderByIdAsc(cursor, PageRequest.ofSize(pageSize + 1));
+            boolean hasMore = rows.size() > pageSize;
+            List<TestEntity> items = hasMore ? rows.subList(0, pageSize) : rows;
+            Long nextCursor = hasMore ? items.get(items.size() - 1).getId() : null;
+            logger.debug("Retrieved page of {} entities after id {}", items.size(), cursor);
+            return new EntityPage(items, items.size(), nextCursor, hasMore);
+        } finally {
+            span.end();
+        }
+    }
+    
+    /**
+     * Streams every entity in id order to the given consumer without materializing the table.
+     * Each row is detached once consumed so the persistence context stays empty.
+     */
+    @Transactional(readOnly = true)
+    public long streamAllEntities(Consumer<TestEntity> consumer) {
+        Span span = tracer.spanBuilder("stream-all-entities").startSpan();
+        long count = 0;
+        try (Stream<TestEntity> entities = repository.streamAllOrderById()) {
+            logger.debug("Streaming all entities");
+            var iterator = entities.iterator();
+            while (iterator.hasNext()) {
+                TestEntity entity = iterator.next();
+                consumer.accept(entity);
+                entityManager.detach(entity);
+                count++;
+            }
+            logger.info("Streamed {} entities", count);
+            return count;
         } finally {
             span.end();
         }
@@ -39,9 +150,9 @@ public class TestEntityService {
         Span span = tracer.spanBuilder("get-entity-by-id").startSpan();
         try {
             logger.debug("Fetching entity with id: {}", id);
-            Optional<TestEntity> entity = repository.findById(id);
+            Optional<TestEntity> entity = entityLoads.execute(id, () -> entityCache.findById(id));
             if (entity.isPresent()) {
-                logger.info("Found entity: {}", entity.get());
+                logger.debug("Found entity: {}", entity.get());
             } else {
                 logger.warn("Entity with id {} not found", id);
             }
@@ -55,7 +166,12 @@ public class TestEntityService {
         Span span = tracer.spanBuilder("create-entity").startSpan();
         try {
             logger.debug("Creating new entity: {}", entity);
+            entity.setVersion(null);
             TestEntity savedEntity = repository.save(entity);
+            nameIndex.index(savedEntity.getId(), savedEntity.getName());
+            countTracker.add(1);
+            writeAheadLog.recordUpserts(List.of(savedEntity));
+            changeFeed.created(List.of(savedEntity));
             logger.info("Created entity with id: {}", savedEntity.getId());
             return savedEntity;
         } finally {
@@ -63,16 +179,60 @@ public class TestEntityService {
         }
     }
     
+    public boolean isWriteBehindEnabled() {
+        return writeBuffer.isEnabled();
+    }
+    
+    /**
+     * Write-behind create: queues {@code entity} for a grouped insert by {@link EntityWriteBuffer}.
+     * The future completes with the saved entity once its group has committed. The buffer inserts
+     * its own copy, so the writer thread never touches {@code entity} and callers may keep using it.
+     *
+     * @throws java.util.concurrent.RejectedExecutionException when the buffer stays full (backpressure)
+     */
+    public CompletableFuture<TestEntity> submitEntity(TestEntity entity) {
+        Span span = tracer.spanBuilder("submit-entity").startSpan();
+        try {
+            logger.debug("Queueing new entity for write-behind: {}", entity);
+            entity.setId(null);
+            entity.setVersion(null);
+            return writeBuffer.submit(entity.copy());
+        } finally {
+            span.end();
+        }
+    }
+    
     public TestEntity updateEntity(Long id, TestEntity updatedEntity) {
+        return updateEntity(id, updatedEntity, null);
+    }
+    
+    /**
+     * Updates name/description of entity {@code id}. With {@code expectedVersion} set, the update
+     * only succeeds if the stored version still matches; either way a write that raced with another
+     * update since the read fails instead of overwriting it.
+     *
+     * @throws OptimisticLockingFailureException when the version does not match or changed concurrently
+     */
+    public TestEntity updateEntity(Long id, TestEntity updatedEntity, Long expectedVersion) {
         Span span = tracer.spanBuilder("update-entity").startSpan();
         try {
-            logger.debug("Updating entity with id: {}", id);
+            logger.debug("Updating entity with id: {} (expected version {})", id, expectedVersion);
             return repository.findById(id)
                     .map(entity -> {
+                        if (expectedVersion != null && !expectedVersion.equals(entity.getVersion())) {
+                            logger.info("Rejected update of entity {} - version {} does not match expected {}", id, entity.getVersion(), expectedVersion);
+                            throw new OptimisticLockingFailureException("Entity " + id + " is at version " + entity.getVersion() + ", not " + expectedVersion);
+                        }
                         entity.setName(updatedEntity.getName());
                         entity.setDescription(updatedEntity.getDescription());
+                        // Detached entity: merge checks this version in the UPDATE's WHERE clause
                         TestEntity saved = repository.save(entity);
-                        logger.info("Updated entity: {}", saved);
+                        entityCache.invalidate(id);
+                        nameIndex.index(id, saved.getName());
+                        writeAheadLog.recordUpserts(List.of(saved));
+                        changeFeed.updated(List.of(saved));
+                        logger.info("Updated entity with id: {}", id);
+                        logger.debug("Updated entity: {}", saved);
                         return saved;
                     })
                     .orElseThrow(() -> {
@@ -90,6 +250,11 @@ public class TestEntityService {
             logger.debug("Deleting entity with id: {}", id);
             if (repository.existsById(id)) {
                 repository.deleteById(id);
+                entityCache.invalidate(id);
+                nameIndex.removeAll(List.of(id));
+                countTracker.add(-1);
+                writeAheadLog.recordDeletes(List.of(id));
+                changeFeed.deleted(List.of(id));
                 logger.info("Deleted entity with id: {}", id);
             } else {
                 logger.warn("Entity with id {} not found for deletion", id);
@@ -100,15 +265,135 @@ public class TestEntityService {
         }
     }
     
-    public List<TestEntity> searchEntitiesByName(String name) {
+    /**
+     * Case-insensitive substring search on name, served by {@link EntityNameIndex} once it has been
+     * built; until then (right after startup) it falls back to the repository LIKE query.
+     * Concurrent searches for the same term and page share one load.
+     */
+    public EntitySearchResult searchEntitiesByName(String name, int offset, int limit) {
         Span span = tracer.spanBuilder("search-entities-by-name").startSpan();
         try {
-            logger.debug("Searching entities by name: {}", name);
-            List<TestEntity> entities = repository.findByNameContainingIgnoreCase(name);
-            logger.info("Found {} entities matching name '{}'", entities.size(), name);
-            return entities;
+            logger.debug("Searching entities by name: {} (offset {}, limit {})", name, offset, limit);
+            int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+            // Search is case-insensitive, so "Foo" and "foo" share one load
+            SearchKey key = new SearchKey(name == null ? "" : name.toLowerCase(Locale.ROOT), offset, pageSize);
+            EntitySearchResult result = searchLoads.execute(key, () -> loadSearch(name, offset, pageSize));
+            logger.debug("Found {} entities matching name '{}', returning {}", result.total(), name, result.items().size());
+            return result;
+        } finally {
+            span.end();
+        }
+    }
+    
+    private EntitySearchResult loadSearch(String name, int offset, int pageSize) {
+        if (nameIndex.isReady()) {
+            EntityNameIndex.Match match = nameIndex.search(name, offset, pageSize);
+            List<TestEntity> items = new ArrayList<>(repository.findAllById(match.ids()));
+            items.sort(Comparator.comparing(TestEntity::getId));
+            return new EntitySearchResult(items, match.total());
+        }
+        List<TestEntity> entities = repository.findByNameContainingIgnoreCase(name);
+        int from = Math.min(Math.max(offset, 0), entities.size());
+        int to = Math.min(from + pageSize, entities.size());
+        return new EntitySearchResult(entities.subList(from, to), entities.size());
+    }
+    
+    /**
+     * Inserts all entities in one transaction. Rows are flushed and the persistence context
+     * cleared every {@code app.entities.batch.chunk-size} rows so JDBC batching applies and
+     * memory stays bounded for large payloads.
+     */
+    @Transactional
+    public List<TestEntity> createEntities(List<TestEntity> entities) {
+        Span span = tracer.spanBuilder("create-entities-batch").startSpan();
+        try {
+            logger.debug("Creating {} entities in batch", entities.size());
+            List<TestEntity> saved = new ArrayList<>(entities.size());
+            for (int from = 0; from < entities.size(); from += batchChunkSize) {
+                List<TestEntity> chunk = entities.subList(from, Math.min(from + batchChunkSize, entities.size()));
+                chunk.forEach(entity -> {
+                    entity.setId(null);
+                    entity.setVersion(null);
+                });
+                List<TestEntity> savedChunk = repository.saveAll(chunk);
+                savedChunk.forEach(entity -> nameIndex.index(entity.getId(), entity.getName()));
+                saved.addAll(savedChunk);
+                entityManager.flush();
+                writeAheadLog.recordUpserts(savedChunk);
+                changeFeed.created(savedChunk);
+                entityManager.clear();
+            }
+            countTracker.add(saved.size());
+            logger.info("Created {} entities in batch", saved.size());
+            return saved;
+        } finally {
+            span.end();
+        }
+    }
+    
+    /**
+     * Applies name/description from each entity to the stored row with the same id, chunked like
+     * {@link #createEntities(List)}. Ids that do not exist are skipped and not returned.
+     */
+    @Transactional
+    public List<TestEntity> updateEntities(List<TestEntity> updates) {
+        Span span = tracer.spanBuilder("update-entities-batch").startSpan();
+        try {
+            logger.debug("Updating {} entities in batch", updates.size());
+            List<TestEntity> updated = new ArrayList<>(updates.size());
+            for (int from = 0; from < updates.size(); from += batchChunkSize) {
+                List<TestEntity> chunk = updates.subList(from, Math.min(from + batchChunkSize, updates.size()));
+                Map<Long, TestEntity> existing = repository.findAllById(chunk.stream().map(TestEntity::getId).filter(Objects::nonNull).toList())
+                        .stream()
+                        .collect(Collectors.toMap(TestEntity::getId, Function.identity()));
+                for (TestEntity update : chunk) {
+                    TestEntity entity = existing.get(update.getId());
+                    if (entity == null) {
+                        logger.warn("Entity with id {} not found for batch update", update.getId());
+                        continue;
+                    }
+                    entity.setName(update.getName());
+                    entity.setDescription(update.getDescription());
+                    nameIndex.index(entity.getId(), entity.getName());
+                    updated.add(entity);
+                }
+                entityManager.flush();
+                entityCache.invalidateAll(existing.keySet());
+                writeAheadLog.recordUpserts(existing.values());
+                changeFeed.updated(existing.values());
+                entityManager.clear();
+            }
+            logger.info("Updated {} of {} entities in batch", updated.size(), updates.size());
+            return updated;
+        } finally {
+            span.end();
+        }
+    }
+    
+    @Transactional
+    public int deleteEntities(List<Long> ids) {
+        Span span = tracer.spanBuilder("delete-entities-batch").startSpan();
+        try {
+            logger.debug("Deleting {} entities in batch", ids.size());
+            int deleted = 0;
+            for (int from = 0; from < ids.size(); from += batchChunkSize) {
+                List<Long> chunk = ids.subList(from, Math.min(from + batchChunkSize, ids.size()));
+                // Only ids that exist are deleted, logged and published
+                List<Long> existing = repository.findExistingIds(chunk);
+                entityCache.invalidateAll(chunk);
+                if (existing.isEmpty()) {
+                    continue;
+                }
+                deleted += repository.deleteAllByIdIn(existing);
+                nameIndex.removeAll(existing);
+                writeAheadLog.recordDeletes(existing);
+                changeFeed.deleted(existing);
+            }
+            countTracker.add(-deleted);
+            logger.info("Deleted {} of {} entities in batch", deleted, ids.size());
+            return deleted;
         } finally {
             span.end();
         }
     }
-}
\ No newline at end of file
+}